@@ -0,0 +1,10 @@
+#!/usr/bin/env bash
+# JMH benchmark of the authorization decision per request: compiled @PreAuthorize rules against
+# SpEL evaluation, and the URL rule trie against the request matcher chain.
+#
+# Usage: loadtest/authorization-benchmark.sh [JMH options]
+# Example: loadtest/authorization-benchmark.sh -wi 2 -i 3 -prof gc
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+mvn -B -q -Pjmh test-compile exec:exec -Djmh.args="-f 1 ${*:-}"
@@ -0,0 +1,10 @@
+#!/usr/bin/env bash
+# JMH benchmark of access token parsing: JWT against the compact encoding of the same claims,
+# with time and allocation per parse.
+#
+# Usage: loadtest/compact-token-benchmark.sh [JMH options]
+# Example: loadtest/compact-token-benchmark.sh -wi 2 -i 3
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+mvn -B -q -Pjmh test-compile exec:exec -Djmh.args="CompactTokenBenchmark -f 1 -prof gc ${*:-}"
@@ -0,0 +1,53 @@
+#!/usr/bin/env bash
+# Compares throughput and p99 latency of platform-thread and virtual-thread request handling.
+# Builds the java21 profile once and runs the same jar in both modes, so only the thread model differs.
+#
+# Usage: JAVA21_HOME=/path/to/jdk21 loadtest/compare-thread-modes.sh
+# Optional: DURATION=60s LOGIN_VUS=50 USERS_VUS=200 PORT=8080
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+: "${JAVA21_HOME:?JAVA21_HOME must point to a JDK 21}"
+PORT="${PORT:-8080}"
+OUT_DIR="target/loadtest"
+mkdir -p "$OUT_DIR"
+
+command -v k6 >/dev/null || { echo "k6 is required (https://k6.io)"; exit 1; }
+
+JAVA_HOME="$JAVA21_HOME" mvn -B -q package -Pjava21 -DskipTests -Ddependency-check.skip=true
+JAR="$(ls target/backend-springboot-*.jar | grep -v original | head -1)"
+
+run_mode() {
+    local mode="$1" virtual="$2"
+    local log="$OUT_DIR/$mode.log"
+
+    VIRTUAL_THREADS="$virtual" "$JAVA21_HOME/bin/java" -jar "$JAR" --server.port="$PORT" --rate.limit.enabled=false >"$log" 2>&1 &
+    local pid=$!
+    trap 'kill $pid 2>/dev/null || true' EXIT
+    until grep -q "Default users initialized" "$log"; do
+        kill -0 "$pid" 2>/dev/null || { echo "$mode: backend failed to start, see $log"; exit 1; }
+        sleep 1
+    done
+
+    BASE_URL="http://localhost:$PORT" k6 run --quiet \
+        --summary-export "$OUT_DIR/$mode.json" loadtest/thread-modes.js >/dev/null
+
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    trap - EXIT
+}
+
+run_mode platform false
+run_mode virtual true
+
+python3 - "$OUT_DIR" <<'PY'
+import json, sys
+out = sys.argv[1]
+print(f"{'mode':<10}{'endpoint':<10}{'req/s':>10}{'p50 ms':>10}{'p99 ms':>10}")
+for mode in ("platform", "virtual"):
+    metrics = json.load(open(f"{out}/{mode}.json"))["metrics"]
+    for endpoint in ("login", "users"):
+        reqs = metrics[f"http_reqs{{endpoint:{endpoint}}}"]
+        duration = metrics[f"http_req_duration{{endpoint:{endpoint}}}"]
+        print(f"{mode:<10}{endpoint:<10}{reqs['rate']:>10.1f}{duration['p(50)']:>10.1f}{duration['p(99)']:>10.1f}")
+PY
@@ -0,0 +1,10 @@
+#!/usr/bin/env bash
+# JMH benchmark of access token parsing as the filter originally did it (key and parser built per
+# call, token parsed twice) against the shared parser and a single parse, with time and allocation.
+#
+# Usage: loadtest/jwt-parse-benchmark.sh [JMH options]
+# Example: loadtest/jwt-parse-benchmark.sh -wi 2 -i 3
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+mvn -B -q -Pjmh test-compile exec:exec -Djmh.args="JwtParseBenchmark -f 1 -prof gc ${*:-}"
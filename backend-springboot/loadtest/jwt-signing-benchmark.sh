@@ -0,0 +1,10 @@
+#!/usr/bin/env bash
+# JMH benchmark of signing and verifying an access token with the shared HS512 secret and with
+# ES256 and EdDSA key ring keys.
+#
+# Usage: loadtest/jwt-signing-benchmark.sh [JMH options]
+# Example: loadtest/jwt-signing-benchmark.sh -wi 2 -i 3 -prof gc
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+mvn -B -q -Pjmh test-compile exec:exec -Djmh.args="JwtSigningBenchmark -f 1 ${*:-}"
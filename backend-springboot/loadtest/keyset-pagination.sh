@@ -0,0 +1,47 @@
+#!/usr/bin/env bash
+# Compares page latency of offset and keyset pagination of GET /api/users over a seeded dataset.
+# Offset pages are fetched directly; keyset pages are reached by walking the cursors, and the
+# latency of each walked request is reported at the same page numbers.
+#
+# Usage: loadtest/keyset-pagination.sh
+# Optional: USERS=200000 PAGE_SIZE=100 SAMPLES=5 PORT=8080
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+source loadtest/lib.sh
+USERS="${USERS:-200000}"
+PAGE_SIZE="${PAGE_SIZE:-100}"
+SAMPLES="${SAMPLES:-5}"
+
+start_backend keyset --app.seed.users="$USERS"
+TOKEN="$(admin_token)"
+
+BASE_URL="$BASE_URL" TOKEN="$TOKEN" USERS="$USERS" PAGE_SIZE="$PAGE_SIZE" SAMPLES="$SAMPLES" python3 - <<'PY'
+import json, os, statistics, time, urllib.parse, urllib.request
+
+base, token = os.environ["BASE_URL"], os.environ["TOKEN"]
+users, size, samples = int(os.environ["USERS"]), int(os.environ["PAGE_SIZE"]), int(os.environ["SAMPLES"])
+pages = users // size
+
+def get(query):
+    request = urllib.request.Request(f"{base}/api/users?{query}", headers={"Authorization": f"Bearer {token}"})
+    start = time.perf_counter()
+    with urllib.request.urlopen(request) as response:
+        body = json.load(response)
+    return (time.perf_counter() - start) * 1000, body
+
+checkpoints = sorted({0, 1, pages // 10, pages // 4, pages // 2, (3 * pages) // 4, pages - 1})
+
+offset = {p: statistics.median(get(f"page={p}&size={size}")[0] for _ in range(samples)) for p in checkpoints}
+
+keyset, cursor, page = {}, "", 0
+while cursor is not None and page < pages:
+    elapsed, body = get(f"cursor={urllib.parse.quote(cursor)}&size={size}")
+    if page in checkpoints:
+        keyset[page] = elapsed
+    cursor, page = body["nextCursor"], page + 1
+
+print(f"{'page':>8}{'offset ms':>12}{'keyset ms':>12}")
+for p in checkpoints:
+    print(f"{p:>8}{offset[p]:>12.1f}{keyset.get(p, float('nan')):>12.1f}")
+PY
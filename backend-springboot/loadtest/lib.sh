@@ -0,0 +1,33 @@
+#!/usr/bin/env bash
+# Shared helpers for the load test scripts; source after cd-ing into the module directory.
+
+PORT="${PORT:-8080}"
+BASE_URL="http://localhost:$PORT"
+OUT_DIR="target/loadtest"
+mkdir -p "$OUT_DIR"
+
+# start_backend <log name> [extra application arguments...]
+# Packages the module, starts it with the loadtest profile and waits for the seeded users.
+start_backend() {
+    local log="$OUT_DIR/$1.log"
+    shift
+    mvn -B -q package -DskipTests -Ddependency-check.skip=true
+    local jar
+    jar="$(ls target/backend-springboot-*.jar | grep -v original | head -1)"
+
+    java -jar "$jar" --server.port="$PORT" --spring.profiles.active=loadtest \
+        --rate.limit.enabled=false "$@" >"$log" 2>&1 &
+    BACKEND_PID=$!
+    trap 'kill $BACKEND_PID 2>/dev/null || true' EXIT
+    until grep -q "Started SecurePlatformApplication" "$log" && grep -q "Load test users seeded" "$log"; do
+        kill -0 "$BACKEND_PID" 2>/dev/null || { echo "backend failed to start, see $log"; exit 1; }
+        sleep 1
+    done
+}
+
+# admin_token: prints an access token for the seeded admin account
+admin_token() {
+    curl -sf -XPOST "$BASE_URL/api/auth/login" -H 'Content-Type: application/json' \
+        -d '{"usernameOrEmail":"admin","password":"Admin123!"}' \
+        | python3 -c 'import json,sys; print(json.load(sys.stdin)["accessToken"])'
+}
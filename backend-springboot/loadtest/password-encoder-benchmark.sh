@@ -0,0 +1,10 @@
+#!/usr/bin/env bash
+# JMH benchmark of password verification per hashing scheme (BCrypt, Argon2id, PBKDF2) with the
+# configured cost settings, with time and allocation per verify.
+#
+# Usage: loadtest/password-encoder-benchmark.sh [JMH options]
+# Example: loadtest/password-encoder-benchmark.sh -p scheme=argon2,pbkdf2
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+mvn -B -q -Pjmh test-compile exec:exec -Djmh.args="PasswordEncoderBenchmark -f 1 -prof gc ${*:-}"
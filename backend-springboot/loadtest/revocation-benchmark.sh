@@ -0,0 +1,10 @@
+#!/usr/bin/env bash
+# JMH benchmark of the per-request token revocation check (Bloom filter plus exact set) with
+# 0, 10k and 100k revoked tokens.
+#
+# Usage: loadtest/revocation-benchmark.sh [JMH options]
+# Example: loadtest/revocation-benchmark.sh -wi 2 -i 3 -prof gc
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+mvn -B -q -Pjmh test-compile exec:exec -Djmh.args="RevocationBenchmark -f 1 ${*:-}"
@@ -0,0 +1,53 @@
+// k6 load profile used by compare-thread-modes.sh
+// Mixes logins with authenticated /api/users reads against one running backend
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const JSON_HEADERS = { 'Content-Type': 'application/json' };
+
+export const options = {
+    scenarios: {
+        login: {
+            executor: 'constant-vus',
+            exec: 'login',
+            vus: Number(__ENV.LOGIN_VUS || 50),
+            duration: __ENV.DURATION || '60s',
+        },
+        users: {
+            executor: 'constant-vus',
+            exec: 'listUsers',
+            vus: Number(__ENV.USERS_VUS || 200),
+            duration: __ENV.DURATION || '60s',
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+    // Always-passing thresholds make k6 report the per-endpoint sub-metrics
+    thresholds: {
+        'http_req_duration{endpoint:login}': ['max>=0'],
+        'http_req_duration{endpoint:users}': ['max>=0'],
+        'http_reqs{endpoint:login}': ['count>=0'],
+        'http_reqs{endpoint:users}': ['count>=0'],
+    },
+};
+
+export function setup() {
+    const res = http.post(`${BASE_URL}/api/auth/login`,
+        JSON.stringify({ usernameOrEmail: 'admin', password: 'Admin123!' }), { headers: JSON_HEADERS });
+    check(res, { 'admin login': (r) => r.status === 200 });
+    return { token: res.json('accessToken') };
+}
+
+export function login() {
+    const res = http.post(`${BASE_URL}/api/auth/login`,
+        JSON.stringify({ usernameOrEmail: 'user', password: 'User123!' }),
+        { headers: JSON_HEADERS, tags: { endpoint: 'login' } });
+    // 503 means the password hashing pool shed the request, which is expected at saturation
+    check(res, { 'login 200/503': (r) => r.status === 200 || r.status === 503 });
+}
+
+export function listUsers(data) {
+    const res = http.get(`${BASE_URL}/api/users?page=0&size=20`,
+        { headers: { Authorization: `Bearer ${data.token}` }, tags: { endpoint: 'users' } });
+    check(res, { 'users 200': (r) => r.status === 200 });
+}
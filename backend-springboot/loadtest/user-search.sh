@@ -0,0 +1,45 @@
+#!/usr/bin/env bash
+# Measures ranked user search latency over a seeded dataset for exact, prefix and substring terms.
+# Runs against the in-memory index by default; set USER_SEARCH=postgres with a Postgres datasource
+# (SPRING_DATASOURCE_URL and friends) to measure the pg_trgm implementation.
+#
+# Usage: loadtest/user-search.sh
+# Optional: USERS=1000000 SAMPLES=50 USER_SEARCH=memory PORT=8080
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+source loadtest/lib.sh
+USERS="${USERS:-1000000}"
+SAMPLES="${SAMPLES:-50}"
+
+start_backend search --app.seed.users="$USERS" --app.search.users.type="${USER_SEARCH:-memory}"
+until grep -q "User search index loaded" "$OUT_DIR/search.log" || [ "${USER_SEARCH:-memory}" != memory ]; do
+    sleep 1
+done
+TOKEN="$(admin_token)"
+
+BASE_URL="$BASE_URL" TOKEN="$TOKEN" SAMPLES="$SAMPLES" python3 - <<'PY'
+import os, statistics, time, urllib.parse, urllib.request
+
+base, token, samples = os.environ["BASE_URL"], os.environ["TOKEN"], int(os.environ["SAMPLES"])
+terms = {
+    "exact": "loadtest-user-0123456",
+    "prefix (short)": "ad",
+    "prefix": "loadtest-user-01234",
+    "substring": "user-0123",
+    "substring (email)": "23456@exa",
+    "no match": "zzzqqq",
+}
+
+print(f"{'term':<20}{'p50 ms':>10}{'p95 ms':>10}")
+for name, term in terms.items():
+    url = f"{base}/api/users?cursor=&size=20&search={urllib.parse.quote(term)}"
+    request = urllib.request.Request(url, headers={"Authorization": f"Bearer {token}"})
+    timings = []
+    for _ in range(samples):
+        start = time.perf_counter()
+        urllib.request.urlopen(request).read()
+        timings.append((time.perf_counter() - start) * 1000)
+    timings.sort()
+    print(f"{name:<20}{statistics.median(timings):>10.1f}{timings[int(len(timings) * 0.95) - 1]:>10.1f}")
+PY
@@ -0,0 +1,92 @@
+package com.secureplatform.revocation;
+
+import com.secureplatform.security.JwtClaims;
+import com.secureplatform.security.JwtTokenProvider;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Revocation Benchmark
+ * Cost of the per-request revocation check for a token that was never revoked (the common case)
+ * and for a revoked one, with the given number of other tokens revoked
+ *
+ * Run with loadtest/revocation-benchmark.sh, or mvn -Pjmh test-compile exec:exec
+ * -Djmh.args=RevocationBenchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RevocationBenchmark {
+
+    @Param({ "0", "10000", "100000" })
+    public int revokedTokens;
+
+    private TokenRevocationList revocationList;
+    private JwtClaims[] liveTokens;
+    private JwtClaims[] revoked;
+    private int next;
+
+    @Setup
+    public void setup() {
+        JwtTokenProvider tokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpirationInMs", 86_400_000);
+
+        revocationList = new TokenRevocationList();
+        ReflectionTestUtils.setField(revocationList, "expectedTokens", 100_000L);
+        ReflectionTestUtils.setField(revocationList, "falsePositiveRate", 0.01);
+        ReflectionTestUtils.setField(revocationList, "store", new LocalRevocationStore());
+        ReflectionTestUtils.setField(revocationList, "tokenProvider", tokenProvider);
+        ReflectionTestUtils.setField(revocationList, "meterRegistry", new SimpleMeterRegistry());
+        revocationList.init();
+
+        for (int i = 0; i < revokedTokens; i++) {
+            revocationList.revokeToken(claims(i));
+        }
+        JwtClaims revokedToken = claims(0);
+        revocationList.revokeToken(revokedToken);
+
+        liveTokens = new JwtClaims[1024];
+        revoked = new JwtClaims[1024];
+        for (int i = 0; i < liveTokens.length; i++) {
+            liveTokens[i] = claims(i);
+            // A fresh id string per request, as parsing the token produces
+            revoked[i] = new JwtClaims(new String(revokedToken.getTokenId()), 0L, revokedToken.getIssuedAt(),
+                    revokedToken.getExpiration(), List.of("ROLE_USER"), null, null, null);
+        }
+    }
+
+    private static JwtClaims claims(long userId) {
+        long now = System.currentTimeMillis();
+        return new JwtClaims(UUID.randomUUID().toString(), userId, new Date(now), new Date(now + 3_600_000),
+                List.of("ROLE_USER"), null, null, null);
+    }
+
+    @Benchmark
+    public boolean notRevoked() {
+        return revocationList.isRevoked(liveTokens[next++ & 1023]);
+    }
+
+    @Benchmark
+    public boolean revoked() {
+        return revocationList.isRevoked(revoked[next++ & 1023]);
+    }
+}
@@ -0,0 +1,167 @@
+package com.secureplatform.security;
+
+import com.secureplatform.model.ERole;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import org.aopalliance.intercept.MethodInvocation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authorization.AuthenticatedAuthorizationManager;
+import org.springframework.security.authorization.AuthorityAuthorizationManager;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.method.PreAuthorizeAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.util.SimpleMethodInvocation;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.security.web.access.intercept.RequestMatcherDelegatingAuthorizationManager;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.AnyRequestMatcher;
+import org.springframework.security.web.util.matcher.DispatcherTypeRequestMatcher;
+
+import java.util.EnumSet;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Authorization Benchmark
+ * Decision cost per request of the compiled rules against the SpEL and request matcher path
+ * they replace, for the @PreAuthorize expressions and URL rules used by the application
+ *
+ * Run with loadtest/authorization-benchmark.sh, or mvn -Pjmh test-compile exec:exec.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthorizationBenchmark {
+
+    /**
+     * Stand-in for the controllers' annotated methods.
+     */
+    public static class Endpoints {
+
+        @PreAuthorize("hasRole('ADMIN')")
+        public void admin() {
+        }
+
+        @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+        public void userOrAdmin() {
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class MethodState {
+
+        @Param({ "admin", "userOrAdmin" })
+        public String method;
+
+        private MethodInvocation invocation;
+        private AuthorizationManager<MethodInvocation> spel;
+        private AuthorizationManager<MethodInvocation> compiled;
+
+        @Setup
+        public void setup() throws NoSuchMethodException {
+            invocation = new SimpleMethodInvocation(new Endpoints(), Endpoints.class.getMethod(method));
+            PreAuthorizeAuthorizationManager preAuthorize = new PreAuthorizeAuthorizationManager();
+            spel = preAuthorize;
+            compiled = new CompiledPreAuthorizeManager(preAuthorize);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class RequestState {
+
+        @Param({ "/api/users/active", "/api/admin/settings", "/actuator/health" })
+        public String path;
+
+        private HttpServletRequest request;
+        private AuthorizationManager<HttpServletRequest> matchers;
+        private AuthorizationManager<HttpServletRequest> trie;
+
+        @Setup
+        public void setup() {
+            MockHttpServletRequest mockRequest = new MockHttpServletRequest(HttpMethod.GET.name(), path);
+            mockRequest.setServletPath(path);
+            request = mockRequest;
+            matchers = matcherChain();
+            // As SecurityConfig registers it, behind the async dispatch rule
+            trie = RequestMatcherDelegatingAuthorizationManager.builder()
+                    .add(new DispatcherTypeRequestMatcher(DispatcherType.ASYNC), permitAll())
+                    .add(AnyRequestMatcher.INSTANCE, SecurityConfig.requestAuthorization())
+                    .build();
+        }
+    }
+
+    private Supplier<Authentication> authentication;
+
+    @Setup
+    public void setup() {
+        UserPrincipal principal = new UserPrincipal(1L, "user", "user@example.com", "",
+                EnumSet.of(ERole.ROLE_USER), true, true, true, true);
+        Authentication token = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+        authentication = () -> token;
+    }
+
+    /**
+     * The rules of SecurityConfig as the requestMatchers chain built them.
+     */
+    private static AuthorizationManager<HttpServletRequest> matcherChain() {
+        AuthorizationManager<RequestAuthorizationContext> permitAll = permitAll();
+        AuthorizationManager<RequestAuthorizationContext> admin = AuthorityAuthorizationManager.hasRole("ADMIN");
+        AuthorizationManager<RequestAuthorizationContext> authenticated = AuthenticatedAuthorizationManager.authenticated();
+        return RequestMatcherDelegatingAuthorizationManager.builder()
+                .add(new DispatcherTypeRequestMatcher(DispatcherType.ASYNC), permitAll)
+                .add(new AntPathRequestMatcher("/api/auth/**"), permitAll)
+                .add(new AntPathRequestMatcher("/api/health"), permitAll)
+                .add(new AntPathRequestMatcher("/api/docs/**"), permitAll)
+                .add(new AntPathRequestMatcher("/.well-known/jwks.json"), permitAll)
+                .add(new AntPathRequestMatcher("/actuator/health"), permitAll)
+                .add(new AntPathRequestMatcher("/actuator/**"), admin)
+                .add(new AntPathRequestMatcher("/api/users/register", HttpMethod.POST.name()), permitAll)
+                .add(new AntPathRequestMatcher("/api/admin/**"), admin)
+                .add(new AntPathRequestMatcher("/api/users/**"), authenticated)
+                .add(new AntPathRequestMatcher("/api/secure/**"), authenticated)
+                .add(AnyRequestMatcher.INSTANCE, authenticated)
+                .build();
+    }
+
+    private static AuthorizationManager<RequestAuthorizationContext> permitAll() {
+        return (a, c) -> new AuthorizationDecision(true);
+    }
+
+    @Benchmark
+    public AuthorizationDecision methodSpel(MethodState state) {
+        return state.spel.check(authentication, state.invocation);
+    }
+
+    @Benchmark
+    public AuthorizationDecision methodCompiled(MethodState state) {
+        return state.compiled.check(authentication, state.invocation);
+    }
+
+    @Benchmark
+    public AuthorizationDecision requestMatchers(RequestState state) {
+        return state.matchers.check(authentication, state.request);
+    }
+
+    @Benchmark
+    public AuthorizationDecision requestTrie(RequestState state) {
+        return state.trie.check(authentication, state.request);
+    }
+}
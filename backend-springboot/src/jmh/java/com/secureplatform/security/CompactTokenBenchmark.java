@@ -0,0 +1,116 @@
+package com.secureplatform.security;
+
+import com.secureplatform.model.ERole;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Compact Token Benchmark
+ * Cost of JwtTokenProvider.parseToken for a JWT and for the compact encoding of the same claims,
+ * with and without claims-principal claims
+ *
+ * Both are signed with HS512 so that the format, not the signature algorithm, dominates; the
+ * ES256/EdDSA signature cost is the same for both and is measured by JwtSigningBenchmark. Run
+ * with loadtest/compact-token-benchmark.sh (adds -prof gc for allocation per parse), or
+ * mvn -Pjmh test-compile exec:exec -Djmh.args=CompactTokenBenchmark.
+ *
+ * parseOnNewThread parses on a thread started for the call, as every request is served with
+ * virtual threads: a virtual thread on a Java 21 runtime, a platform thread otherwise.
+ * newThread is the cost of starting and joining that thread alone, to subtract from it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompactTokenBenchmark {
+
+    @Param({ "jwt", "compact" })
+    public String format;
+
+    @Param({ "false", "true" })
+    public boolean claimsPrincipal;
+
+    private static final MethodHandle START_VIRTUAL_THREAD = startVirtualThread();
+
+    private JwtTokenProvider tokenProvider;
+    private String token;
+
+    @Setup
+    public void setup() {
+        JwtKeyRing keyRing = new JwtKeyRing();
+        ReflectionTestUtils.setField(keyRing, "algorithm", "HS512");
+
+        tokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(tokenProvider, "jwtSecret",
+                "benchmark-secret-key-that-is-long-enough-for-hs512-signing-0123456789abcdef");
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpirationInMs", 3_600_000);
+        ReflectionTestUtils.setField(tokenProvider, "claimsPrincipalEnabled", claimsPrincipal);
+        ReflectionTestUtils.setField(tokenProvider, "compactTokensEnabled", "compact".equals(format));
+        ReflectionTestUtils.setField(tokenProvider, "keyRing", keyRing);
+        tokenProvider.init();
+
+        UserPrincipal principal = new UserPrincipal(42L, "benchmark-user", "benchmark-user@example.com", null,
+                Set.of(ERole.ROLE_USER, ERole.ROLE_MODERATOR), true, true, true, true, 3);
+        token = tokenProvider.generateToken(principal);
+        if (tokenProvider.parseToken(token) == null) {
+            throw new IllegalStateException("Benchmark token does not parse");
+        }
+    }
+
+    @Benchmark
+    public JwtClaims parse() {
+        return tokenProvider.parseToken(token);
+    }
+
+    @Benchmark
+    public JwtClaims parseOnNewThread() throws Throwable {
+        AtomicReference<JwtClaims> claims = new AtomicReference<>();
+        startThread(() -> claims.set(tokenProvider.parseToken(token))).join();
+        return claims.get();
+    }
+
+    @Benchmark
+    public Thread newThread() throws Throwable {
+        Thread thread = startThread(() -> { });
+        thread.join();
+        return thread;
+    }
+
+    private static Thread startThread(Runnable task) throws Throwable {
+        if (START_VIRTUAL_THREAD != null) {
+            return (Thread) START_VIRTUAL_THREAD.invokeExact(task);
+        }
+        Thread thread = new Thread(task);
+        thread.start();
+        return thread;
+    }
+
+    // Thread.startVirtualThread exists from Java 21; the benchmarks compile for Java 17
+    private static MethodHandle startVirtualThread() {
+        try {
+            return MethodHandles.publicLookup().findStatic(Thread.class, "startVirtualThread",
+                    MethodType.methodType(Thread.class, Runnable.class));
+        } catch (NoSuchMethodException | IllegalAccessException ex) {
+            return null;
+        }
+    }
+}
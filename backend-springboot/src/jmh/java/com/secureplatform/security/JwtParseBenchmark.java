@@ -0,0 +1,77 @@
+package com.secureplatform.security;
+
+import com.secureplatform.model.ERole;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT Parse Benchmark
+ * Per-request token handling before and after the shared parser: the original filter derived
+ * the HMAC key and built a parser for validateToken() and again for getUserIdFromToken(), so
+ * every request parsed the token twice; parseToken() verifies it once with the parser built
+ * at startup
+ *
+ * HS512 tokens, as before the key ring. Run with loadtest/jwt-parse-benchmark.sh (adds -prof gc
+ * for allocation per request), or mvn -Pjmh test-compile exec:exec -Djmh.args=JwtParseBenchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtParseBenchmark {
+
+    private static final String SECRET =
+            "benchmark-secret-key-that-is-long-enough-for-hs512-signing-0123456789abcdef";
+
+    private JwtTokenProvider tokenProvider;
+    private String token;
+
+    @Setup
+    public void setup() {
+        JwtKeyRing keyRing = new JwtKeyRing();
+        ReflectionTestUtils.setField(keyRing, "algorithm", "HS512");
+
+        tokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(tokenProvider, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpirationInMs", 3_600_000);
+        ReflectionTestUtils.setField(tokenProvider, "keyRing", keyRing);
+        tokenProvider.init();
+
+        token = tokenProvider.generateToken(new UserPrincipal(42L, "benchmark-user",
+                "benchmark-user@example.com", null, Set.of(ERole.ROLE_USER), true, true, true, true));
+    }
+
+    /**
+     * validateToken() then getUserIdFromToken(), each with a freshly derived key and parser.
+     */
+    @Benchmark
+    public long perCallParserTwice() {
+        Jwts.parser().verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes())).build()
+                .parseSignedClaims(token);
+        Claims claims = Jwts.parser().verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes())).build()
+                .parseSignedClaims(token).getPayload();
+        return Long.parseLong(claims.getSubject());
+    }
+
+    @Benchmark
+    public JwtClaims sharedParserOnce() {
+        return tokenProvider.parseToken(token);
+    }
+}
@@ -0,0 +1,99 @@
+package com.secureplatform.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.KeyPair;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT Signing Benchmark
+ * Cost of signing an access token at login and of verifying it on every request, for the shared
+ * HS512 secret and the key ring's ES256 and EdDSA (Ed25519) keys
+ *
+ * The claims match what JwtTokenProvider puts in a token. Run with
+ * loadtest/jwt-signing-benchmark.sh, or mvn -Pjmh test-compile exec:exec
+ * -Djmh.args=JwtSigningBenchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtSigningBenchmark {
+
+    private static final String SECRET =
+            "benchmark-secret-key-that-is-long-enough-for-hs512-signing-0123456789abcdef";
+
+    @Param({ "HS512", "ES256", "EdDSA" })
+    public String algorithm;
+
+    private Key signingKey;
+    private JwtParser parser;
+    private String kid;
+    private String token;
+
+    @Setup
+    public void setup() {
+        switch (algorithm) {
+            case "HS512" -> {
+                SecretKey secret = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+                signingKey = secret;
+                parser = Jwts.parser().verifyWith(secret).build();
+            }
+            case "ES256", "EdDSA" -> {
+                KeyPair keyPair = "EdDSA".equals(algorithm)
+                        ? Jwks.CRV.Ed25519.keyPair().build()
+                        : Jwts.SIG.ES256.keyPair().build();
+                signingKey = keyPair.getPrivate();
+                kid = Jwks.builder().key(keyPair.getPublic()).idFromThumbprint().build().getId();
+                parser = Jwts.parser().verifyWith(keyPair.getPublic()).build();
+            }
+            default -> throw new IllegalStateException("Unknown algorithm " + algorithm);
+        }
+        token = sign();
+    }
+
+    @Benchmark
+    public String sign() {
+        long now = System.currentTimeMillis();
+        var builder = Jwts.builder()
+                .id(UUID.randomUUID().toString())
+                .subject("42")
+                .claim("roles", List.of("ROLE_USER"))
+                .claim("username", "user")
+                .claim("email", "user@example.com")
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + 3_600_000));
+        if (kid != null) {
+            builder.header().keyId(kid).and();
+        }
+        return builder.signWith(signingKey).compact();
+    }
+
+    @Benchmark
+    public Claims verify() {
+        return parser.parseSignedClaims(token).getPayload();
+    }
+}
@@ -0,0 +1,62 @@
+package com.secureplatform.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Password Encoder Benchmark
+ * Cost of verifying a login password per hashing scheme, with the settings from
+ * application.properties: BCrypt strength 10, Argon2id m=19 MiB t=2 p=1, PBKDF2-HMAC-SHA256
+ * with 310k iterations
+ *
+ * Allocation per verify (-prof gc) approximates the memory each concurrent login holds. Run with
+ * loadtest/password-encoder-benchmark.sh, or mvn -Pjmh test-compile exec:exec
+ * -Djmh.args=PasswordEncoderBenchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class PasswordEncoderBenchmark {
+
+    private static final String PASSWORD = "Benchmark-Password-123!";
+
+    @Param({ PasswordSchemes.BCRYPT, PasswordSchemes.ARGON2, PasswordSchemes.PBKDF2 })
+    public String scheme;
+
+    private PasswordEncoder encoder;
+    private String hash;
+
+    @Setup
+    public void setup() {
+        PasswordSchemes schemes = new PasswordSchemes();
+        ReflectionTestUtils.setField(schemes, "bcryptStrength", 10);
+        ReflectionTestUtils.setField(schemes, "argon2MemoryInKb", 19456);
+        ReflectionTestUtils.setField(schemes, "argon2Iterations", 2);
+        ReflectionTestUtils.setField(schemes, "pbkdf2Iterations", 310_000);
+        schemes.init();
+
+        encoder = schemes.delegatingEncoder(scheme);
+        hash = encoder.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean verify() {
+        return encoder.matches(PASSWORD, hash);
+    }
+}
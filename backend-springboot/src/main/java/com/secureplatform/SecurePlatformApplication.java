@@ -2,16 +2,16 @@ package com.secureplatform;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
 /**
  * Main Spring Boot Application for Secure Platform
- * Features: JWT Auth, Spring Security, Actuator, DevSecOps Integration
+ * Features: JWT Auth, Spring Security, Actuator, DevSecOps Integration, Scheduled Jobs
  */
 @SpringBootApplication
-@EnableMethodSecurity(prePostEnabled = true)
 @EnableTransactionManagement
+@EnableScheduling
 public class SecurePlatformApplication {
 
     public static void main(String[] args) {
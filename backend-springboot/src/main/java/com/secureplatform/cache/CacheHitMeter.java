@@ -0,0 +1,46 @@
+package com.secureplatform.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Cache Hit Meter
+ * Per-node hit/miss counters and hit ratio for a named cache
+ */
+class CacheHitMeter {
+
+    private final Counter hits;
+    private final Counter misses;
+
+    CacheHitMeter(MeterRegistry registry, String cacheName, String implementation) {
+        this.hits = Counter.builder("app.cache.requests")
+                .tag("cache", cacheName)
+                .tag("impl", implementation)
+                .tag("result", "hit")
+                .register(registry);
+        this.misses = Counter.builder("app.cache.requests")
+                .tag("cache", cacheName)
+                .tag("impl", implementation)
+                .tag("result", "miss")
+                .register(registry);
+        Gauge.builder("app.cache.hit.ratio", this, CacheHitMeter::hitRatio)
+                .tag("cache", cacheName)
+                .tag("impl", implementation)
+                .register(registry);
+    }
+
+    <T> T record(T value) {
+        if (value != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return value;
+    }
+
+    double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0.0 : hits.count() / total;
+    }
+}
@@ -0,0 +1,72 @@
+package com.secureplatform.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.secureplatform.security.UserPrincipal;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+
+/**
+ * Caffeine User Principal Cache
+ * Node-local principal cache; invalidations only reach the node that performs them
+ */
+public class CaffeineUserPrincipalCache implements UserPrincipalCache {
+
+    private final Cache<Long, UserPrincipal> byId;
+    private final Cache<String, Long> loginToId;
+    private final CacheHitMeter meter;
+
+    public CaffeineUserPrincipalCache(long maxSize, Duration ttl, MeterRegistry meterRegistry) {
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+        this.loginToId = Caffeine.newBuilder()
+                .maximumSize(maxSize * 2)
+                .expireAfterWrite(ttl)
+                .build();
+        this.meter = new CacheHitMeter(meterRegistry, "user-principals", "local");
+    }
+
+    @Override
+    public UserPrincipal getById(Long userId) {
+        return meter.record(byId.getIfPresent(userId));
+    }
+
+    @Override
+    public UserPrincipal getByLogin(String usernameOrEmail) {
+        Long userId = loginToId.getIfPresent(usernameOrEmail);
+        UserPrincipal principal = userId != null ? byId.getIfPresent(userId) : null;
+        // A renamed user leaves its old login mapping behind until it expires
+        if (principal != null && !matchesLogin(principal, usernameOrEmail)) {
+            loginToId.invalidate(usernameOrEmail);
+            principal = null;
+        }
+        return meter.record(principal);
+    }
+
+    @Override
+    public void put(UserPrincipal principal) {
+        byId.put(principal.getId(), principal);
+        loginToId.put(principal.getUsername(), principal.getId());
+        if (principal.getEmail() != null) {
+            loginToId.put(principal.getEmail(), principal.getId());
+        }
+    }
+
+    @Override
+    public void evict(Long userId) {
+        byId.invalidate(userId);
+    }
+
+    @Override
+    public void evictAll() {
+        byId.invalidateAll();
+        loginToId.invalidateAll();
+    }
+
+    static boolean matchesLogin(UserPrincipal principal, String usernameOrEmail) {
+        return usernameOrEmail.equals(principal.getUsername()) || usernameOrEmail.equals(principal.getEmail());
+    }
+}
@@ -0,0 +1,32 @@
+package com.secureplatform.cache;
+
+import com.secureplatform.security.UserPrincipal;
+
+/**
+ * No-op User Principal Cache
+ * Used when principal caching is disabled; every lookup goes to the database
+ */
+public class NoOpUserPrincipalCache implements UserPrincipalCache {
+
+    @Override
+    public UserPrincipal getById(Long userId) {
+        return null;
+    }
+
+    @Override
+    public UserPrincipal getByLogin(String usernameOrEmail) {
+        return null;
+    }
+
+    @Override
+    public void put(UserPrincipal principal) {
+    }
+
+    @Override
+    public void evict(Long userId) {
+    }
+
+    @Override
+    public void evictAll() {
+    }
+}
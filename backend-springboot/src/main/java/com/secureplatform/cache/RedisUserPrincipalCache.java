@@ -0,0 +1,149 @@
+package com.secureplatform.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.secureplatform.security.RoleAuthorities;
+import com.secureplatform.security.UserPrincipal;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Redis User Principal Cache
+ * Principal cache shared by all replicas, so an invalidation on one node is seen by every node
+ *
+ * Entries include the password hash needed by the login path; the Redis instance must be
+ * treated with the same care as the database. Redis failures degrade to cache misses.
+ */
+public class RedisUserPrincipalCache implements UserPrincipalCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisUserPrincipalCache.class);
+
+    private static final String ID_KEY = "user-principal:id:";
+    private static final String LOGIN_KEY = "user-principal:login:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final CacheHitMeter meter;
+
+    public RedisUserPrincipalCache(StringRedisTemplate redisTemplate, ObjectMapper objectMapper,
+                                   Duration ttl, MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.meter = new CacheHitMeter(meterRegistry, "user-principals", "redis");
+    }
+
+    @Override
+    public UserPrincipal getById(Long userId) {
+        return meter.record(read(userId));
+    }
+
+    @Override
+    public UserPrincipal getByLogin(String usernameOrEmail) {
+        UserPrincipal principal = null;
+        try {
+            String userId = redisTemplate.opsForValue().get(LOGIN_KEY + usernameOrEmail);
+            if (userId != null) {
+                principal = read(Long.valueOf(userId));
+            }
+        } catch (DataAccessException ex) {
+            logger.warn("Redis principal lookup failed: {}", ex.getMessage());
+        }
+        if (principal != null && !CaffeineUserPrincipalCache.matchesLogin(principal, usernameOrEmail)) {
+            principal = null;
+        }
+        return meter.record(principal);
+    }
+
+    @Override
+    public void put(UserPrincipal principal) {
+        try {
+            String value = objectMapper.writeValueAsString(Snapshot.of(principal));
+            String userId = principal.getId().toString();
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    ValueOperations<String, String> values = (ValueOperations<String, String>) operations.opsForValue();
+                    values.set(ID_KEY + userId, value, ttl);
+                    values.set(LOGIN_KEY + principal.getUsername(), userId, ttl);
+                    if (principal.getEmail() != null) {
+                        values.set(LOGIN_KEY + principal.getEmail(), userId, ttl);
+                    }
+                    return null;
+                }
+            });
+        } catch (JsonProcessingException | DataAccessException ex) {
+            logger.warn("Redis principal write failed: {}", ex.getMessage());
+        }
+    }
+
+    @Override
+    public void evict(Long userId) {
+        try {
+            redisTemplate.delete(ID_KEY + userId);
+        } catch (DataAccessException ex) {
+            logger.error("Redis principal eviction failed for user {}: {}", userId, ex.getMessage());
+        }
+    }
+
+    @Override
+    public void evictAll() {
+        try {
+            // KEYS is O(n) on the Redis side; only used for administrative flushes
+            var keys = redisTemplate.keys("user-principal:*");
+            if (keys != null && !keys.isEmpty()) {
+                redisTemplate.delete(keys);
+            }
+        } catch (DataAccessException ex) {
+            logger.error("Redis principal flush failed: {}", ex.getMessage());
+        }
+    }
+
+    private UserPrincipal read(Long userId) {
+        try {
+            String value = redisTemplate.opsForValue().get(ID_KEY + userId);
+            return value != null ? objectMapper.readValue(value, Snapshot.class).toPrincipal() : null;
+        } catch (JsonProcessingException | DataAccessException ex) {
+            logger.warn("Redis principal read failed: {}", ex.getMessage());
+            return null;
+        }
+    }
+
+    record Snapshot(Long id, String username, String email, String password, List<String> authorities,
+                    boolean enabled, boolean accountNonExpired, boolean accountNonLocked,
+                    boolean credentialsNonExpired, int tokenVersion, LocalDateTime lockedUntil) {
+
+        static Snapshot of(UserPrincipal principal) {
+            return new Snapshot(
+                    principal.getId(),
+                    principal.getUsername(),
+                    principal.getEmail(),
+                    principal.getPassword(),
+                    principal.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList(),
+                    principal.isEnabled(),
+                    principal.isAccountNonExpired(),
+                    !principal.isAdministrativelyLocked(),
+                    principal.isCredentialsNonExpired(),
+                    principal.getTokenVersion(),
+                    principal.getLockedUntil());
+        }
+
+        UserPrincipal toPrincipal() {
+            return new UserPrincipal(id, username, email, password, RoleAuthorities.roles(authorities),
+                    enabled, accountNonExpired, accountNonLocked, credentialsNonExpired, tokenVersion, lockedUntil);
+        }
+    }
+}
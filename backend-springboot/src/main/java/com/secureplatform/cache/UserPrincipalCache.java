@@ -0,0 +1,25 @@
+package com.secureplatform.cache;
+
+import com.secureplatform.security.UserPrincipal;
+
+/**
+ * User Principal Cache
+ * Second-level cache of authenticated principals used by CustomUserDetailsService
+ *
+ * Implementations must be safe for concurrent use. Lookups return {@code null} on a miss.
+ */
+public interface UserPrincipalCache {
+
+    UserPrincipal getById(Long userId);
+
+    /**
+     * Looks up a principal by the username or email it was loaded with.
+     */
+    UserPrincipal getByLogin(String usernameOrEmail);
+
+    void put(UserPrincipal principal);
+
+    void evict(Long userId);
+
+    void evictAll();
+}
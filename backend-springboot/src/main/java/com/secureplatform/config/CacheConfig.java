@@ -0,0 +1,50 @@
+package com.secureplatform.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.secureplatform.cache.CaffeineUserPrincipalCache;
+import com.secureplatform.cache.NoOpUserPrincipalCache;
+import com.secureplatform.cache.RedisUserPrincipalCache;
+import com.secureplatform.cache.UserPrincipalCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+
+/**
+ * Cache Configuration
+ * Selects the user principal cache implementation via app.cache.user-principal.type
+ * (local, redis or none)
+ */
+@Configuration
+public class CacheConfig {
+
+    @Value("${app.cache.user-principal.max-size:50000}")
+    private long maxSize;
+
+    @Value("${app.cache.user-principal.ttl:600000}")
+    private long ttlInMs;
+
+    @Bean
+    @ConditionalOnProperty(name = "app.cache.user-principal.type", havingValue = "local", matchIfMissing = true)
+    public UserPrincipalCache localUserPrincipalCache(MeterRegistry meterRegistry) {
+        return new CaffeineUserPrincipalCache(maxSize, Duration.ofMillis(ttlInMs), meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.cache.user-principal.type", havingValue = "redis")
+    public UserPrincipalCache redisUserPrincipalCache(StringRedisTemplate redisTemplate,
+                                                      ObjectMapper objectMapper,
+                                                      MeterRegistry meterRegistry) {
+        return new RedisUserPrincipalCache(redisTemplate, objectMapper, Duration.ofMillis(ttlInMs), meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.cache.user-principal.type", havingValue = "none")
+    public UserPrincipalCache noOpUserPrincipalCache() {
+        return new NoOpUserPrincipalCache();
+    }
+}
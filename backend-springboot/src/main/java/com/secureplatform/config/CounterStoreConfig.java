@@ -0,0 +1,62 @@
+package com.secureplatform.config;
+
+import com.secureplatform.ratelimit.LocalRateLimitStore;
+import com.secureplatform.ratelimit.RateLimitStore;
+import com.secureplatform.ratelimit.RedisRateLimitStore;
+import com.secureplatform.security.LocalLockoutStore;
+import com.secureplatform.security.LockoutStore;
+import com.secureplatform.security.RedisLockoutStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+
+/**
+ * Counter Store Configuration
+ * Selects where rate limit and lockout counters live via app.counters.store:
+ * local (per JVM) or redis (shared by all replicas)
+ */
+@Configuration
+public class CounterStoreConfig {
+
+    @Value("${rate.limit.max-tracked-clients:100000}")
+    private long maxTrackedClients;
+
+    @Value("${app.security.lockout.max-tracked-users:100000}")
+    private long maxTrackedUsers;
+
+    @Value("${app.security.lockout.failure-window-ms:1800000}")
+    private long failureWindowInMs;
+
+    @Value("${app.security.lockout.duration-ms:1800000}")
+    private long lockDurationInMs;
+
+    @Bean
+    @ConditionalOnProperty(name = "app.counters.store", havingValue = "local", matchIfMissing = true)
+    public RateLimitStore localRateLimitStore(MeterRegistry meterRegistry) {
+        // Idle for the longest rate limit window means fully refilled
+        return new LocalRateLimitStore(maxTrackedClients, Duration.ofHours(1), meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.counters.store", havingValue = "local", matchIfMissing = true)
+    public LockoutStore localLockoutStore() {
+        return new LocalLockoutStore(maxTrackedUsers, Duration.ofMillis(Math.max(failureWindowInMs, lockDurationInMs)));
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.counters.store", havingValue = "redis")
+    public RateLimitStore redisRateLimitStore(StringRedisTemplate redisTemplate) {
+        return new RedisRateLimitStore(redisTemplate);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.counters.store", havingValue = "redis")
+    public LockoutStore redisLockoutStore(StringRedisTemplate redisTemplate) {
+        return new RedisLockoutStore(redisTemplate);
+    }
+}
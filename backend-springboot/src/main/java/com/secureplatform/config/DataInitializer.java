@@ -3,11 +3,11 @@ package com.secureplatform.config;
 import com.secureplatform.model.ERole;
 import com.secureplatform.model.Role;
 import com.secureplatform.model.User;
-import com.secureplatform.repository.RoleRepository;
 import com.secureplatform.repository.UserRepository;
+import com.secureplatform.security.PasswordHashService;
+import com.secureplatform.service.RoleRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
@@ -22,41 +22,28 @@ import java.util.Set;
 public class DataInitializer implements CommandLineRunner {
 
     @Autowired
-    private RoleRepository roleRepository;
+    private RoleRegistry roleRegistry;
 
     @Autowired
     private UserRepository userRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashService passwordHashService;
 
     @Override
     public void run(String... args) throws Exception {
-        initializeRoles();
+        // Default roles are created by the RoleRegistry when it loads
         initializeDefaultUsers();
     }
 
-    private void initializeRoles() {
-        // Create default roles
-        Role userRole = new Role(ERole.ROLE_USER, "Standard user with basic access");
-        Role adminRole = new Role(ERole.ROLE_ADMIN, "Administrator with full system access");
-        Role modRole = new Role(ERole.ROLE_MODERATOR, "Moderator with content management privileges");
-
-        roleRepository.save(userRole);
-        roleRepository.save(adminRole);
-        roleRepository.save(modRole);
-
-        System.out.println("✅ Default roles initialized successfully");
-    }
-
     private void initializeDefaultUsers() {
         // Create admin user
         if (!userRepository.existsByUsername("admin")) {
             User admin = new User("admin", "admin@secureplatform.com", "Admin123!");
-            admin.setPassword(passwordEncoder.encode("Admin123!"));
+            admin.setPassword(passwordHashService.encode("admin", "Admin123!"));
             
             Set<Role> adminRoles = new HashSet<>();
-            adminRoles.add(roleRepository.findByName(ERole.ROLE_ADMIN).orElseThrow());
+            adminRoles.add(roleRegistry.role(ERole.ROLE_ADMIN));
             admin.setRoles(adminRoles);
             admin.setEnabled(true);
             admin.setAccountNonExpired(true);
@@ -70,10 +57,10 @@ public class DataInitializer implements CommandLineRunner {
         // Create test user
         if (!userRepository.existsByUsername("user")) {
             User user = new User("user", "user@secureplatform.com", "User123!");
-            user.setPassword(passwordEncoder.encode("User123!"));
+            user.setPassword(passwordHashService.encode("user", "User123!"));
             
             Set<Role> userRoles = new HashSet<>();
-            userRoles.add(roleRepository.findByName(ERole.ROLE_USER).orElseThrow());
+            userRoles.add(roleRegistry.role(ERole.ROLE_USER));
             user.setRoles(userRoles);
             user.setEnabled(true);
             user.setAccountNonExpired(true);
@@ -87,10 +74,10 @@ public class DataInitializer implements CommandLineRunner {
         // Create moderator user
         if (!userRepository.existsByUsername("moderator")) {
             User moderator = new User("moderator", "moderator@secureplatform.com", "Moderator123!");
-            moderator.setPassword(passwordEncoder.encode("Moderator123!"));
+            moderator.setPassword(passwordHashService.encode("moderator", "Moderator123!"));
             
             Set<Role> modRoles = new HashSet<>();
-            modRoles.add(roleRepository.findByName(ERole.ROLE_MODERATOR).orElseThrow());
+            modRoles.add(roleRegistry.role(ERole.ROLE_MODERATOR));
             moderator.setRoles(modRoles);
             moderator.setEnabled(true);
             moderator.setAccountNonExpired(true);
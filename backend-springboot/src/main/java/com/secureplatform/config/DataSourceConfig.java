@@ -0,0 +1,96 @@
+package com.secureplatform.config;
+
+import com.secureplatform.datasource.ConnectionHoldMeter;
+import com.secureplatform.datasource.RepositoryOperationInterceptor;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+import java.util.Map;
+
+/**
+ * DataSource Configuration
+ * Applies the PostgreSQL driver settings to the connection pool and instruments it
+ *
+ * Pool sizing and timeouts come from spring.datasource.hikari.* and the pool-api and
+ * pool-batch profiles. Driver settings under app.datasource.postgresql.* are added only to
+ * jdbc:postgresql pools, since other drivers reject unknown settings. With
+ * app.datasource.metrics.connection-hold enabled, connection hold time is recorded per
+ * repository method (see {@link ConnectionHoldMeter}).
+ */
+@Configuration
+public class DataSourceConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(DataSourceConfig.class);
+
+    private static final String POSTGRESQL_URL_PREFIX = "jdbc:postgresql:";
+
+    // Static: post-processors are created before the rest of the configuration
+    @Bean
+    static BeanPostProcessor dataSourcePostProcessor(Environment environment,
+                                                     ObjectProvider<MeterRegistry> meterRegistry) {
+        Map<String, String> postgresProperties = postgresProperties(environment);
+        boolean meterConnectionHold = meterConnectionHold(environment);
+
+        return new BeanPostProcessor() {
+
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource dataSource) {
+                    applyPostgresProperties(dataSource, postgresProperties);
+                } else if (meterConnectionHold && bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, repository) -> proxyFactory.addAdvice(
+                                    new RepositoryOperationInterceptor(repository.getRepositoryInterface()))));
+                }
+                return bean;
+            }
+
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (meterConnectionHold && bean instanceof HikariDataSource dataSource) {
+                    String pool = dataSource.getPoolName() != null ? dataSource.getPoolName() : beanName;
+                    return new ConnectionHoldMeter(dataSource, pool, meterRegistry);
+                }
+                return bean;
+            }
+        };
+    }
+
+    static boolean meterConnectionHold(Environment environment) {
+        return environment.getProperty("app.datasource.metrics.connection-hold", Boolean.class, true);
+    }
+
+    static Map<String, String> postgresProperties(Environment environment) {
+        return Binder.get(environment)
+                .bind("app.datasource.postgresql", Bindable.mapOf(String.class, String.class))
+                .orElse(Map.of());
+    }
+
+    static boolean isPostgres(String jdbcUrl) {
+        return jdbcUrl != null && jdbcUrl.startsWith(POSTGRESQL_URL_PREFIX);
+    }
+
+    static void applyPostgresProperties(HikariConfig pool, Map<String, String> properties) {
+        if (!isPostgres(pool.getJdbcUrl())) {
+            return;
+        }
+        // Explicit spring.datasource.hikari.data-source-properties.* take precedence
+        properties.forEach((name, value) -> {
+            if (!pool.getDataSourceProperties().containsKey(name)) {
+                pool.addDataSourceProperty(name, value);
+            }
+        });
+        logger.info("PostgreSQL driver settings for pool {}: {}", pool.getPoolName(), properties);
+    }
+}
@@ -0,0 +1,89 @@
+package com.secureplatform.config;
+
+import com.secureplatform.model.User;
+import com.secureplatform.security.PasswordHashService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Load Test Data Seeder
+ * Bulk-inserts synthetic users for the scripts under loadtest/; only active with the loadtest profile
+ *
+ * All seeded users share one password hash ("Password123!") so seeding costs a single hash.
+ */
+@Component
+@Profile("loadtest")
+public class LoadTestDataSeeder implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadTestDataSeeder.class);
+
+    private static final String INSERT_SQL =
+            "INSERT INTO users (id, username, email, password, enabled, account_non_expired, account_non_locked, " +
+            "credentials_non_expired, failed_login_attempts, token_version, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, TRUE, TRUE, TRUE, TRUE, 0, 0, ?, ?)";
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Value("${app.seed.users:200000}")
+    private int userCount;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordHashService passwordHashService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public void run(String... args) {
+        long start = System.currentTimeMillis();
+        String passwordHash = passwordHashService.encode("loadtest", "Password123!");
+        LocalDateTime createdAt = LocalDateTime.now().minusSeconds(userCount);
+        long firstId = reserveIds();
+
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < userCount; i++) {
+            String username = String.format("loadtest-user-%07d", i);
+            Timestamp timestamp = Timestamp.valueOf(createdAt.plusSeconds(i));
+            batch.add(new Object[] { firstId + i, username, username + "@example.com", passwordHash, timestamp, timestamp });
+            if (batch.size() == BATCH_SIZE) {
+                jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+        }
+
+        logger.info("Load test users seeded: {} in {} ms", userCount, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Takes the next users_seq value as the first seeded id and restarts the sequence past the
+     * seeded range, so ids handed out by Hibernate's pooled optimizer never overlap it.
+     */
+    private long reserveIds() {
+        Dialect dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+        Long firstId = jdbcTemplate.queryForObject(
+                dialect.getSequenceSupport().getSequenceNextValString("users_seq"), Long.class);
+        long restartWith = firstId + userCount - 1 + User.ID_ALLOCATION_SIZE;
+        jdbcTemplate.execute("ALTER SEQUENCE users_seq RESTART WITH " + restartWith);
+        return firstId;
+    }
+}
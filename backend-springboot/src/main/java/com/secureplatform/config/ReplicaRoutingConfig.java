@@ -0,0 +1,116 @@
+package com.secureplatform.config;
+
+import com.secureplatform.datasource.ConnectionHoldMeter;
+import com.secureplatform.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replica Routing Configuration
+ * Routes read-only transactions to the read replicas listed in app.datasource.replica.urls
+ *
+ * Only active when replicas are configured; otherwise the auto-configured pool is used as is.
+ * The primary pool keeps the spring.datasource.* settings. Each replica gets a copy of them with
+ * its own URL, a read-only flag, a short connection timeout (so a dead replica costs little
+ * before falling back) and the replica credentials when set.
+ */
+@Configuration
+@ConditionalOnExpression("!'${app.datasource.replica.urls:}'.isBlank()")
+public class ReplicaRoutingConfig {
+
+    @Value("${app.datasource.replica.urls}")
+    private List<String> replicaUrls;
+
+    @Value("${app.datasource.replica.username:}")
+    private String username;
+
+    @Value("${app.datasource.replica.password:}")
+    private String password;
+
+    @Value("${app.datasource.replica.maximum-pool-size:0}")
+    private int maximumPoolSize;
+
+    @Value("${app.datasource.replica.connection-timeout:1000}")
+    private long connectionTimeout;
+
+    @Value("${app.datasource.replica.max-lag:5000}")
+    private long maxLagMs;
+
+    @Value("${app.datasource.replica.lag-query:}")
+    private String lagQuery;
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                                             ObjectProvider<MeterRegistry> meterRegistry,
+                                                             Environment environment) throws SQLException {
+        HikariDataSource primaryPool = primary.unwrap(HikariDataSource.class);
+        MeterRegistry registry = meterRegistry.getObject();
+
+        List<DataSource> replicas = new ArrayList<>(replicaUrls.size());
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            HikariConfig config = new HikariConfig();
+            primaryPool.copyStateTo(config);
+            config.setJdbcUrl(replicaUrls.get(i).trim());
+            config.setPoolName(primaryPool.getPoolName() + "-replica-" + (i + 1));
+            config.setReadOnly(true);
+            config.setConnectionTimeout(connectionTimeout);
+            // Replicas may be down at startup; the health check takes them out of rotation
+            config.setInitializationFailTimeout(-1);
+            if (maximumPoolSize > 0) {
+                config.setMaximumPoolSize(maximumPoolSize);
+                config.setMinimumIdle(Math.min(config.getMinimumIdle(), maximumPoolSize));
+            }
+            if (!username.isEmpty()) {
+                config.setUsername(username);
+                config.setPassword(password);
+            }
+            config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+            DataSourceConfig.applyPostgresProperties(config, DataSourceConfig.postgresProperties(environment));
+
+            DataSource replica = new HikariDataSource(config);
+            if (DataSourceConfig.meterConnectionHold(environment)) {
+                replica = new ConnectionHoldMeter(replica, config.getPoolName(), meterRegistry);
+            }
+            replicas.add(replica);
+        }
+
+        String query = !lagQuery.isBlank() ? lagQuery
+                : DataSourceConfig.isPostgres(replicaUrls.get(0).trim()) ? ReplicaRoutingDataSource.POSTGRES_LAG_QUERY
+                : null;
+        return new ReplicaRoutingDataSource(primary, replicas, query, maxLagMs, registry);
+    }
+
+    /**
+     * The DataSource used by JPA, Flyway and JDBC templates. The lazy proxy takes the physical
+     * connection at the first statement, once the transaction's readOnly flag is known.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
@@ -0,0 +1,41 @@
+package com.secureplatform.config;
+
+import com.secureplatform.revocation.LocalRevocationStore;
+import com.secureplatform.revocation.RedisRevocationStore;
+import com.secureplatform.revocation.RevocationStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * Revocation Store Configuration
+ * Selects where token revocations are shared via app.jwt.revocation.store:
+ * local (this replica only) or redis (all replicas)
+ */
+@Configuration
+public class RevocationStoreConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "app.jwt.revocation.store", havingValue = "local", matchIfMissing = true)
+    public RevocationStore localRevocationStore() {
+        return new LocalRevocationStore();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.jwt.revocation.store", havingValue = "redis")
+    public RedisMessageListenerContainer revocationListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.jwt.revocation.store", havingValue = "redis")
+    public RevocationStore redisRevocationStore(StringRedisTemplate redisTemplate,
+                                                RedisMessageListenerContainer revocationListenerContainer) {
+        return new RedisRevocationStore(redisTemplate, revocationListenerContainer);
+    }
+}
@@ -0,0 +1,104 @@
+package com.secureplatform.config;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Schema Index Verifier
+ * Fails startup when an index the repository queries rely on is missing from the database
+ *
+ * Runs after the migrations. Without these indexes the listings, exports and searches still
+ * answer correctly but scan the users table, which only shows up under production data sizes.
+ */
+@Component
+@DependsOnDatabaseInitialization
+@ConditionalOnProperty(name = "app.schema.verify-indexes", havingValue = "true", matchIfMissing = true)
+public class SchemaIndexVerifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchemaIndexVerifier.class);
+
+    // Table -> indexes created by the migrations for every database
+    private static final Map<String, List<String>> QUERY_INDEXES = Map.of(
+            "users", List.of("idx_users_created_at_id", "idx_users_active",
+                    "idx_users_last_login_at", "idx_users_failed_logins"),
+            "user_roles", List.of("idx_user_roles_user_id"),
+            "refresh_tokens", List.of("idx_refresh_tokens_family_id", "idx_refresh_tokens_user_id",
+                    "idx_refresh_tokens_expires_at"));
+
+    // Only PostgreSQL has the user search indexes; H2 searches in memory
+    private static final Map<String, List<String>> POSTGRES_SEARCH_INDEXES = Map.of(
+            "users", List.of("idx_users_username_trgm", "idx_users_email_trgm",
+                    "idx_users_username_pattern", "idx_users_email_pattern"));
+
+    @Autowired
+    private DataSource dataSource;
+
+    @PostConstruct
+    public void verify() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            boolean postgres = "PostgreSQL".equals(metaData.getDatabaseProductName());
+
+            List<String> missing = new ArrayList<>();
+            int verified = verify(connection, QUERY_INDEXES, missing);
+            if (postgres) {
+                verified += verify(connection, POSTGRES_SEARCH_INDEXES, missing);
+            }
+
+            if (!missing.isEmpty()) {
+                throw new IllegalStateException("Missing database indexes " + missing
+                        + "; apply the Flyway migrations, or set app.schema.verify-indexes=false");
+            }
+            logger.info("Verified {} query indexes on {}", verified, metaData.getDatabaseProductName());
+        }
+    }
+
+    private int verify(Connection connection, Map<String, List<String>> expected, List<String> missing)
+            throws SQLException {
+        int verified = 0;
+        for (Map.Entry<String, List<String>> table : expected.entrySet()) {
+            Set<String> present = indexNames(connection, table.getKey());
+            for (String index : table.getValue()) {
+                if (present.contains(index)) {
+                    verified++;
+                } else {
+                    missing.add(table.getKey() + "." + index);
+                }
+            }
+        }
+        return verified;
+    }
+
+    private static Set<String> indexNames(Connection connection, String table) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        String tableName = metaData.storesUpperCaseIdentifiers() ? table.toUpperCase() : table;
+
+        Set<String> names = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        try (ResultSet indexes = metaData.getIndexInfo(connection.getCatalog(), connection.getSchema(),
+                tableName, false, true)) {
+            while (indexes.next()) {
+                String name = indexes.getString("INDEX_NAME");
+                if (name != null) {
+                    names.add(name);
+                }
+            }
+        }
+        return names;
+    }
+}
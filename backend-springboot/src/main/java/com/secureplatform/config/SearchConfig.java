@@ -0,0 +1,30 @@
+package com.secureplatform.config;
+
+import com.secureplatform.search.InMemoryUserSearchIndex;
+import com.secureplatform.search.PostgresUserSearchIndex;
+import com.secureplatform.search.UserSearchIndex;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+/**
+ * Search Configuration
+ * Selects the user search index via app.search.users.type: memory (H2/dev) or postgres (pg_trgm)
+ */
+@Configuration
+public class SearchConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "app.search.users.type", havingValue = "memory", matchIfMissing = true)
+    public UserSearchIndex inMemoryUserSearchIndex(JdbcTemplate jdbcTemplate) {
+        return new InMemoryUserSearchIndex(jdbcTemplate);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.search.users.type", havingValue = "postgres")
+    public UserSearchIndex postgresUserSearchIndex(NamedParameterJdbcTemplate jdbcTemplate) {
+        return new PostgresUserSearchIndex(jdbcTemplate);
+    }
+}
@@ -1,8 +1,11 @@
 package com.secureplatform.controller;
 
+import com.secureplatform.security.PasswordHashingUnavailableException;
 import com.secureplatform.service.AuthService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -10,7 +13,7 @@ import java.util.Set;
 
 /**
  * Authentication Controller
- * Handles login, registration, and token refresh
+ * Handles login, registration, token refresh and logout
  */
 @RestController
 @RequestMapping("/api/auth")
@@ -28,8 +31,7 @@ public class AuthController {
                     loginRequest.getPassword());
             return ResponseEntity.ok(jwtResponse);
         } catch (Exception e) {
-            return ResponseEntity.badRequest()
-                    .body(new MessageResponse("Error: " + e.getMessage()));
+            return errorResponse(e);
         }
     }
 
@@ -43,8 +45,7 @@ public class AuthController {
                     signUpRequest.getRole());
             return ResponseEntity.ok(jwtResponse);
         } catch (Exception e) {
-            return ResponseEntity.badRequest()
-                    .body(new MessageResponse("Error: " + e.getMessage()));
+            return errorResponse(e);
         }
     }
 
@@ -60,6 +61,39 @@ public class AuthController {
         }
     }
 
+    /**
+     * Revokes the bearer token of the request (and the refresh token, if sent); with
+     * allSessions every token of the user is revoked.
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+                                    @RequestBody(required = false) LogoutRequest logoutRequest) {
+        String accessToken = authorization != null && authorization.startsWith("Bearer ")
+                ? authorization.substring(7) : null;
+        try {
+            authService.logout(accessToken,
+                    logoutRequest != null ? logoutRequest.getRefreshToken() : null,
+                    logoutRequest != null && logoutRequest.isAllSessions());
+            return ResponseEntity.ok(new MessageResponse("Logged out successfully"));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Error: " + e.getMessage()));
+        }
+    }
+
+    private ResponseEntity<?> errorResponse(Exception e) {
+        // Hashing saturation may arrive wrapped by the authentication manager
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof PasswordHashingUnavailableException) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, "1")
+                        .body(new MessageResponse("Error: Authentication service is busy, please retry"));
+            }
+        }
+        return ResponseEntity.badRequest()
+                .body(new MessageResponse("Error: " + e.getMessage()));
+    }
+
     // DTOs
     public static class LoginRequest {
         private String usernameOrEmail;
@@ -116,6 +150,18 @@ public class AuthController {
         public void setRefreshToken(String refreshToken) { this.refreshToken = refreshToken; }
     }
 
+    public static class LogoutRequest {
+        private String refreshToken;
+        private boolean allSessions;
+
+        public LogoutRequest() {}
+
+        public String getRefreshToken() { return refreshToken; }
+        public void setRefreshToken(String refreshToken) { this.refreshToken = refreshToken; }
+        public boolean isAllSessions() { return allSessions; }
+        public void setAllSessions(boolean allSessions) { this.allSessions = allSessions; }
+    }
+
     public static class MessageResponse {
         private String message;
 
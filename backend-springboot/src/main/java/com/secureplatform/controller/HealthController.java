@@ -1,5 +1,7 @@
 package com.secureplatform.controller;
 
+import com.secureplatform.ratelimit.RateLimiter;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -17,6 +19,9 @@ import java.util.Map;
 @RequestMapping("/api")
 public class HealthController {
 
+    @Autowired
+    private RateLimiter rateLimiter;
+
     @GetMapping("/health")
     public ResponseEntity<Map<String, Object>> health() {
         Map<String, Object> response = new HashMap<>();
@@ -37,7 +42,7 @@ public class HealthController {
         response.put("cors", "CONFIGURED");
         response.put("password_encoding", "BCRYPT");
         response.put("role_based_access", "ENABLED");
-        response.put("rate_limiting", "ENABLED");
+        response.put("rate_limiting", rateLimiter.isEnabled() ? "ENABLED" : "DISABLED");
         response.put("owasp_compliance", "ACTIVE");
         
         return ResponseEntity.ok(response);
@@ -0,0 +1,43 @@
+package com.secureplatform.controller;
+
+import com.secureplatform.security.JwtKeyRing;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWKS Controller
+ * Publishes the public keys of the JWT key ring so other services verify access tokens locally
+ *
+ * The document is prebuilt by JwtKeyRing and served with an ETag and a public max-age;
+ * verifiers should cache it and refetch only on an unknown kid.
+ */
+@RestController
+public class JwksController {
+
+    @Autowired
+    private JwtKeyRing keyRing;
+
+    // Keep below app.jwt.keys.publish-ahead so cached copies learn new keys before they sign
+    @Value("${app.jwt.jwks.max-age:300}")
+    private long maxAgeInSeconds;
+
+    @GetMapping(value = "/.well-known/jwks.json", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> jwks(WebRequest request) {
+        String etag = keyRing.jwksETag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(maxAgeInSeconds, TimeUnit.SECONDS).cachePublic())
+                .eTag(etag)
+                .body(keyRing.jwks());
+    }
+}
@@ -1,14 +1,26 @@
 package com.secureplatform.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.secureplatform.model.User;
+import com.secureplatform.repository.UserListing;
+import com.secureplatform.search.UserSearchCursor;
+import com.secureplatform.service.UserCursor;
+import com.secureplatform.service.UserExportService;
+import com.secureplatform.service.UserImportService;
 import com.secureplatform.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Optional;
@@ -22,9 +34,22 @@ import java.util.Optional;
 @CrossOrigin(origins = "*", maxAge = 3600)
 public class UserController {
 
+    private static final int MAX_KEYSET_PAGE_SIZE = 1000;
+
+    private static final int MAX_SEARCH_OFFSET = 10_000;
+
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private UserExportService userExportService;
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @GetMapping("/me")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
     public ResponseEntity<?> getCurrentUser(@RequestParam(required = false) Long userId) {
@@ -63,14 +88,26 @@ public class UserController {
             @RequestParam(required = false) String search) {
         try {
             Pageable pageable = PageRequest.of(page, size);
-            Page<User> users;
 
             if (search != null && !search.trim().isEmpty()) {
-                users = userService.getUserRepository().findByUsernameContainingOrEmailContaining(search, pageable);
-            } else {
-                users = userService.getUserRepository().findAll(pageable);
+                // Ranked search has no total; the index walks the hits up to the requested page,
+                // so deep pages are refused in favour of the cursor variant
+                int pageSize = Math.max(1, Math.min(size, MAX_KEYSET_PAGE_SIZE));
+                Pageable searchPageable = PageRequest.of(page, pageSize);
+                if (searchPageable.getOffset() > MAX_SEARCH_OFFSET) {
+                    return ResponseEntity.badRequest().body(new AuthController.MessageResponse(
+                            "Error: search results past " + MAX_SEARCH_OFFSET + " require the cursor parameter"));
+                }
+
+                UserService.UserSearchPage hits = userService.searchUsers(search,
+                        (int) searchPageable.getOffset(), pageSize);
+                List<UserSummary> content = hits.users().stream()
+                        .map(UserController::toSummary)
+                        .toList();
+                return ResponseEntity.ok(new SliceImpl<>(content, searchPageable, hits.next() != null));
             }
 
+            Page<UserListing> users = userService.getUserRepository().findListingPage(pageable);
             return ResponseEntity.ok(users);
         } catch (Exception e) {
             return ResponseEntity.badRequest()
@@ -78,11 +115,52 @@ public class UserController {
         }
     }
 
+    /**
+     * Keyset variant of the listing, selected by the cursor parameter (empty for the first
+     * page). Every page costs the same however deep it is; the total is only counted on request.
+     * With a search term, results come from the user search index ranked by relevance.
+     */
+    @GetMapping(params = "cursor")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getUsersAfter(
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(defaultValue = "false") boolean count,
+            @RequestParam(required = false) String search) {
+        try {
+            int pageSize = Math.max(1, Math.min(size, MAX_KEYSET_PAGE_SIZE));
+
+            if (search != null && !search.trim().isEmpty()) {
+                // Ranked by relevance, so sort and count do not apply
+                UserService.UserSearchPage page = userService.searchUsers(search,
+                        UserSearchCursor.decode(cursor), pageSize);
+                return ResponseEntity.ok(new KeysetPage(
+                        page.users().stream().map(UserController::toSummary).toList(),
+                        page.next() != null ? page.next().encode() : null,
+                        null));
+            }
+
+            UserCursor.Sort cursorSort = "createdAt".equals(sort) ? UserCursor.Sort.CREATED_AT : UserCursor.Sort.ID;
+            UserService.UserKeysetPage page = userService.findUsersAfter(UserCursor.decode(cursor, cursorSort), pageSize);
+            List<UserSummary> content = page.users().stream()
+                    .map(UserController::toSummary)
+                    .toList();
+
+            return ResponseEntity.ok(new KeysetPage(content,
+                    page.next() != null ? page.next().encode() : null,
+                    count ? userService.getUserRepository().count() : null));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new AuthController.MessageResponse("Error: " + e.getMessage()));
+        }
+    }
+
     @GetMapping("/active")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<?> getActiveUsers() {
         try {
-            List<User> activeUsers = userService.getUserRepository().findAllActiveUsers();
+            List<UserListing> activeUsers = userService.getUserRepository().findActiveListings();
             return ResponseEntity.ok(activeUsers);
         } catch (Exception e) {
             return ResponseEntity.badRequest()
@@ -94,7 +172,7 @@ public class UserController {
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<?> getUsersWithSecurityIssues() {
         try {
-            List<User> usersWithIssues = userService.getUserRepository().findUsersWithFailedLoginAttempts();
+            List<UserListing> usersWithIssues = userService.getUserRepository().findListingsWithFailedLoginAttempts();
             return ResponseEntity.ok(usersWithIssues);
         } catch (Exception e) {
             return ResponseEntity.badRequest()
@@ -102,6 +180,48 @@ public class UserController {
         }
     }
 
+    /**
+     * Streams a user selection (active, last-login or security) as NDJSON or CSV. Rows are
+     * written as they are read from the database, so the export never sits in memory.
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @RequestParam(defaultValue = "active") String selection,
+            @RequestParam(defaultValue = "ndjson") String format) {
+        UserExportService.Selection exportSelection;
+        UserExportService.Format exportFormat;
+        try {
+            exportSelection = UserExportService.Selection.of(selection);
+            exportFormat = UserExportService.Format.of(format);
+        } catch (Exception e) {
+            // A streaming handler cannot return MessageResponse directly, so the error body is streamed too
+            AuthController.MessageResponse message = new AuthController.MessageResponse("Error: " + e.getMessage());
+            return ResponseEntity.badRequest()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(out -> objectMapper.writeValue(out, message));
+        }
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.contentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("users-" + exportSelection.fileName() + "." + exportFormat.extension())
+                        .build().toString())
+                .body(out -> userExportService.export(exportSelection, exportFormat, out));
+    }
+
+    /**
+     * Provisions users from an NDJSON (or JSON array) body of {username, email, password, roles}
+     * rows. The body is read and the per-row results written back as NDJSON while the import runs.
+     */
+    @PostMapping(value = "/import", consumes = { UserImportService.NDJSON, MediaType.APPLICATION_JSON_VALUE })
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> importUsers(HttpServletRequest request) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(UserImportService.NDJSON))
+                .body(out -> userImportService.importUsers(request.getInputStream(), out));
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<?> updateUser(
@@ -134,6 +254,26 @@ public class UserController {
         }
     }
 
+    /**
+     * Signs the user out everywhere: every token issued to them so far stops working.
+     */
+    @PostMapping("/{id}/revoke-tokens")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> revokeTokens(@PathVariable Long id) {
+        try {
+            userService.revokeTokens(id);
+            return ResponseEntity.ok(new AuthController.MessageResponse("Tokens revoked successfully"));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new AuthController.MessageResponse("Error: " + e.getMessage()));
+        }
+    }
+
+    private static UserSummary toSummary(User user) {
+        return new UserSummary(user.getId(), user.getUsername(), user.getEmail(),
+                user.getLastLoginAt(), user.getFailedLoginAttempts());
+    }
+
     // DTO for user summary
     public static class UserSummary {
         private Long id;
@@ -160,6 +300,25 @@ public class UserController {
         public Integer getFailedLoginAttempts() { return failedLoginAttempts; }
     }
 
+    // DTO for a keyset page
+    public static class KeysetPage {
+        private List<UserSummary> content;
+        private String nextCursor;
+        private Long totalElements;
+
+        public KeysetPage() {}
+
+        public KeysetPage(List<UserSummary> content, String nextCursor, Long totalElements) {
+            this.content = content;
+            this.nextCursor = nextCursor;
+            this.totalElements = totalElements;
+        }
+
+        public List<UserSummary> getContent() { return content; }
+        public String getNextCursor() { return nextCursor; }
+        public Long getTotalElements() { return totalElements; }
+    }
+
     // DTO for user update
     public static class UserUpdateRequest {
         private String username;
@@ -0,0 +1,134 @@
+package com.secureplatform.datasource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Connection Hold Meter
+ * Records how long each pooled connection is held, tagged with the operation that used it
+ *
+ * The operation is the outermost repository method called on the thread while the connection
+ * is held (see {@link RepositoryOperationInterceptor}), such as "UserRepository.findById", or
+ * "other" for plain JDBC work. A connection taken by a service transaction is attributed to the
+ * first repository method the transaction calls; a Stream whose query only runs after the
+ * repository method has returned counts as "other". Published as the app.db.connection.hold timer.
+ */
+public class ConnectionHoldMeter extends DelegatingDataSource {
+
+    private static final String OTHER = "other";
+
+    private static final ThreadLocal<Hold> CURRENT = new ThreadLocal<>();
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final String pool;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public ConnectionHoldMeter(DataSource target, String pool, ObjectProvider<MeterRegistry> meterRegistry) {
+        super(target);
+        this.pool = pool;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return track(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return track(super.getConnection(username, password));
+    }
+
+    /**
+     * Names the connection held by this thread after an operation, unless it already has one.
+     */
+    static void attribute(String operation) {
+        Hold hold = CURRENT.get();
+        if (hold != null && hold.operation == null) {
+            hold.operation = operation;
+        }
+    }
+
+    private Connection track(Connection connection) {
+        Hold hold = new Hold(System.nanoTime(), RepositoryOperationInterceptor.currentOperation(), CURRENT.get());
+        CURRENT.set(hold);
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "close" -> {
+                            if (!hold.released) {
+                                hold.released = true;
+                                release(hold);
+                            }
+                        }
+                        case "equals" -> {
+                            return proxy == args[0];
+                        }
+                        case "hashCode" -> {
+                            return System.identityHashCode(proxy);
+                        }
+                        case "unwrap", "isWrapperFor" -> {
+                            if (((Class<?>) args[0]).isInstance(proxy)) {
+                                return "unwrap".equals(method.getName()) ? proxy : true;
+                            }
+                        }
+                        default -> {
+                        }
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException ex) {
+                        throw ex.getTargetException();
+                    }
+                });
+    }
+
+    private void release(Hold hold) {
+        long heldNanos = System.nanoTime() - hold.acquiredAt;
+        if (CURRENT.get() == hold) {
+            if (hold.previous != null) {
+                CURRENT.set(hold.previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            String operation = hold.operation != null ? hold.operation : OTHER;
+            Timer timer = timers.get(operation);
+            if (timer == null) {
+                timer = timers.computeIfAbsent(operation, name -> Timer.builder("app.db.connection.hold")
+                        .description("Time a pooled connection is held, by the operation that used it")
+                        .tag("pool", pool)
+                        .tag("operation", name)
+                        .register(registry));
+            }
+            timer.record(heldNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static final class Hold {
+
+        private final long acquiredAt;
+        private final Hold previous;
+        private String operation;
+        private boolean released;
+
+        private Hold(long acquiredAt, String operation, Hold previous) {
+            this.acquiredAt = acquiredAt;
+            this.operation = operation;
+            this.previous = previous;
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.secureplatform.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Replica Routing DataSource
+ * Sends read-only transactions to healthy read replicas in round-robin order and everything
+ * else to the primary
+ *
+ * A connection goes to a replica only inside a transaction marked readOnly; writes, read-write
+ * transactions and work outside a transaction stay on the primary, so a flow that reads what it
+ * just wrote (login lookup followed by the last-login update) never sees replica lag. Replicas
+ * are checked every app.datasource.replica.check-interval: one that cannot be reached, or whose
+ * replay lag exceeds the bound, is skipped until a later check passes, and a replica that fails
+ * to hand out a connection is marked down at once and the read falls back to the primary.
+ *
+ * Must be used behind a LazyConnectionDataSourceProxy: the transaction manager takes its
+ * connection before the transaction's readOnly flag is published, and the proxy defers the
+ * routing decision to the first statement.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    /**
+     * Replay lag in seconds on a PostgreSQL standby; zero when it has replayed everything received.
+     */
+    public static final String POSTGRES_LAG_QUERY =
+            "SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+
+    private final Target primary;
+    private final List<Replica> replicas;
+    private final String lagQuery;
+    private final double maxLagSeconds;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter fallbacks;
+
+    /**
+     * @param lagQuery query returning the replay lag in seconds, or null when lag is not measured
+     */
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, String lagQuery,
+                                    long maxLagMs, MeterRegistry meterRegistry) {
+        this.primary = new Target("primary", primary, meterRegistry);
+        this.replicas = new ArrayList<>(replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            this.replicas.add(new Replica("replica-" + (i + 1), replicas.get(i), meterRegistry));
+        }
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLagMs / 1000.0;
+        this.fallbacks = Counter.builder("app.db.route.fallbacks")
+                .description("Read-only transactions sent to the primary because no replica was available")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            int count = replicas.size();
+            int start = Math.floorMod(next.getAndIncrement(), count);
+            for (int i = 0; i < count; i++) {
+                Replica replica = replicas.get((start + i) % count);
+                if (!replica.healthy) {
+                    continue;
+                }
+                try {
+                    return replica.connection();
+                } catch (SQLException ex) {
+                    replica.markDown("connection failed: " + ex.getMessage());
+                }
+            }
+            fallbacks.increment();
+        }
+        return primary.connection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Connections are taken with the configured credentials");
+    }
+
+    /**
+     * Probes every replica and updates whether it may serve reads.
+     */
+    @Scheduled(fixedDelayString = "${app.datasource.replica.check-interval:5000}",
+               initialDelayString = "${app.datasource.replica.check-interval:5000}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            check(replica);
+        }
+    }
+
+    private void check(Replica replica) {
+        long start = System.nanoTime();
+        double lag;
+        try (Connection connection = replica.dataSource.getConnection()) {
+            // The pool validates the connection it hands out
+            lag = lagQuery != null ? measureLag(connection) : 0.0;
+        } catch (SQLException ex) {
+            replica.markDown("health check failed: " + ex.getMessage());
+            return;
+        } finally {
+            replica.checks.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        replica.lagSeconds = lag;
+        if (lag > maxLagSeconds) {
+            replica.markDown(String.format("replay lag %.1fs exceeds %.1fs", lag, maxLagSeconds));
+        } else if (!replica.healthy) {
+            replica.healthy = true;
+            logger.info("Read replica {} is serving reads again (lag {}s)", replica.name, lag);
+        }
+    }
+
+    /**
+     * Closes the replica pools; the primary is managed by its own bean.
+     */
+    @Override
+    public void close() throws IOException {
+        for (Replica replica : replicas) {
+            try {
+                if (replica.dataSource.isWrapperFor(Closeable.class)) {
+                    replica.dataSource.unwrap(Closeable.class).close();
+                }
+            } catch (SQLException ex) {
+                logger.warn("Could not close read replica {}: {}", replica.name, ex.getMessage());
+            }
+        }
+    }
+
+    private double measureLag(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(1);
+            try (ResultSet rs = statement.executeQuery(lagQuery)) {
+                return rs.next() ? rs.getDouble(1) : 0.0;
+            }
+        }
+    }
+
+    private static class Target {
+
+        final String name;
+        final DataSource dataSource;
+        final Timer acquire;
+
+        Target(String name, DataSource dataSource, MeterRegistry meterRegistry) {
+            this.name = name;
+            this.dataSource = dataSource;
+            this.acquire = Timer.builder("app.db.route.acquire")
+                    .description("Time to obtain a connection from a routing target")
+                    .tag("target", name)
+                    .register(meterRegistry);
+        }
+
+        Connection connection() throws SQLException {
+            long start = System.nanoTime();
+            try {
+                return dataSource.getConnection();
+            } finally {
+                acquire.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    private static final class Replica extends Target {
+
+        final Timer checks;
+        volatile boolean healthy = true;
+        volatile double lagSeconds;
+
+        Replica(String name, DataSource dataSource, MeterRegistry meterRegistry) {
+            super(name, dataSource, meterRegistry);
+            this.checks = Timer.builder("app.db.replica.check")
+                    .description("Replica health check latency")
+                    .tag("target", name)
+                    .register(meterRegistry);
+            Gauge.builder("app.db.replica.lag", this, replica -> replica.lagSeconds)
+                    .description("Last measured replay lag")
+                    .baseUnit("seconds")
+                    .tag("target", name)
+                    .register(meterRegistry);
+            Gauge.builder("app.db.replica.healthy", this, replica -> replica.healthy ? 1.0 : 0.0)
+                    .tag("target", name)
+                    .register(meterRegistry);
+        }
+
+        void markDown(String reason) {
+            if (healthy) {
+                logger.warn("Read replica {} taken out of rotation: {}", name, reason);
+            }
+            healthy = false;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.secureplatform.datasource;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Repository Operation Interceptor
+ * Marks the thread with the repository method being run, e.g. "UserRepository.findById", so
+ * connection metrics can be attributed to it
+ *
+ * Nested repository calls keep the outermost name. Added to every repository proxy by
+ * DataSourceConfig.
+ */
+public class RepositoryOperationInterceptor implements MethodInterceptor {
+
+    private static final ThreadLocal<String> OPERATION = new ThreadLocal<>();
+
+    private final String repositoryName;
+    private final Map<Method, String> operations = new ConcurrentHashMap<>();
+
+    public RepositoryOperationInterceptor(Class<?> repositoryInterface) {
+        this.repositoryName = repositoryInterface.getSimpleName();
+    }
+
+    static String currentOperation() {
+        return OPERATION.get();
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (OPERATION.get() != null) {
+            return invocation.proceed();
+        }
+
+        String operation = operations.get(invocation.getMethod());
+        if (operation == null) {
+            operation = operations.computeIfAbsent(invocation.getMethod(),
+                    method -> repositoryName + "." + method.getName());
+        }
+        OPERATION.set(operation);
+        ConnectionHoldMeter.attribute(operation);
+        try {
+            return invocation.proceed();
+        } finally {
+            OPERATION.remove();
+        }
+    }
+}
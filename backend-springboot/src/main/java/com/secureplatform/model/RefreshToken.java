@@ -0,0 +1,73 @@
+package com.secureplatform.model;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Refresh Token Entity
+ * One issued refresh token, identified by the SHA-256 hash of its value
+ *
+ * The raw token is never stored. Tokens rotated from the same login share a family id; usedAt
+ * is set when the token is exchanged, after which presenting it again revokes the family.
+ */
+@Entity
+@Table(name = "refresh_tokens")
+public class RefreshToken implements Persistable<String> {
+
+    @Id
+    @Column(length = 64)
+    private String tokenHash;
+
+    @Column(nullable = false, length = 36)
+    private String familyId;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private LocalDateTime issuedAt;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    private LocalDateTime usedAt;
+
+    // The id is assigned, so save() would otherwise select the row before inserting it
+    @Transient
+    private boolean isNew = true;
+
+    protected RefreshToken() {}
+
+    public RefreshToken(String tokenHash, String familyId, Long userId, LocalDateTime issuedAt, LocalDateTime expiresAt) {
+        this.tokenHash = tokenHash;
+        this.familyId = familyId;
+        this.userId = userId;
+        this.issuedAt = issuedAt;
+        this.expiresAt = expiresAt;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    @Override
+    public String getId() { return tokenHash; }
+
+    @Override
+    public boolean isNew() { return isNew; }
+
+    public String getTokenHash() { return tokenHash; }
+    public String getFamilyId() { return familyId; }
+    public Long getUserId() { return userId; }
+    public LocalDateTime getIssuedAt() { return issuedAt; }
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+    public LocalDateTime getUsedAt() { return usedAt; }
+
+    public boolean isExpired(LocalDateTime now) {
+        return !expiresAt.isAfter(now);
+    }
+}
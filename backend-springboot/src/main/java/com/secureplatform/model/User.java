@@ -22,8 +22,13 @@ import java.util.Set;
 })
 public class User {
 
+    // Pooled sequence rather than IDENTITY so Hibernate can batch inserts; ids are
+    // reserved ID_ALLOCATION_SIZE at a time
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @NotBlank
@@ -38,7 +43,8 @@ public class User {
     private String email;
 
     @NotBlank
-    @Size(min = 8, max = 100)
+    @Size(min = 8, max = 255)
+    @Column(length = 255)
     private String password;
 
     @ManyToMany(fetch = FetchType.LAZY)
@@ -58,6 +64,9 @@ public class User {
     private Integer failedLoginAttempts = 0;
     private LocalDateTime lockedUntil;
 
+    // Bumped whenever claims embedded in issued tokens stop reflecting the account
+    private Integer tokenVersion = 0;
+
     // Audit fields
     @CreationTimestamp
     @Column(updatable = false)
@@ -116,6 +125,9 @@ public class User {
     public LocalDateTime getLockedUntil() { return lockedUntil; }
     public void setLockedUntil(LocalDateTime lockedUntil) { this.lockedUntil = lockedUntil; }
 
+    public Integer getTokenVersion() { return tokenVersion; }
+    public void setTokenVersion(Integer tokenVersion) { this.tokenVersion = tokenVersion; }
+
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 
@@ -132,8 +144,12 @@ public class User {
     }
 
     public boolean hasRole(String roleName) {
-        return roles.stream()
-                .anyMatch(role -> role.getName().name().equals(roleName));
+        for (Role role : roles) {
+            if (role.getName().name().equals(roleName)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     public boolean isAccountLocked() {
@@ -144,6 +160,10 @@ public class User {
         this.failedLoginAttempts++;
     }
 
+    public void incrementTokenVersion() {
+        this.tokenVersion = (tokenVersion == null ? 0 : tokenVersion) + 1;
+    }
+
     public void resetFailedAttempts() {
         this.failedLoginAttempts = 0;
         this.lockedUntil = null;
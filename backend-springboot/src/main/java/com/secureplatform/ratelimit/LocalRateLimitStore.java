@@ -0,0 +1,57 @@
+package com.secureplatform.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local Rate Limit Store
+ * In-process token buckets; limits apply per JVM, so each replica grants its own budget
+ *
+ * Buckets live in a bounded Caffeine cache (striped internally, so hot keys do not contend
+ * on a single lock). Keys idle for {@code idleTimeout} are evicted; with the idle timeout at
+ * least as long as the longest window, every evicted bucket had already refilled.
+ */
+public class LocalRateLimitStore implements RateLimitStore {
+
+    private final Cache<String, TokenBucket[]> buckets;
+
+    public LocalRateLimitStore(long maxKeys, Duration idleTimeout, MeterRegistry meterRegistry) {
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(idleTimeout)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, buckets, "rate-limit.buckets");
+    }
+
+    @Override
+    public long tryAcquire(String key, Limit... limits) {
+        TokenBucket[] keyBuckets = buckets.get(key, k -> newBuckets(limits));
+        long now = System.nanoTime();
+
+        for (int i = 0; i < keyBuckets.length; i++) {
+            long waitInNanos = keyBuckets[i].tryAcquire(now);
+            if (waitInNanos > 0) {
+                // A rejected request is charged to no limit, as the Redis script does
+                for (int j = 0; j < i; j++) {
+                    keyBuckets[j].refund();
+                }
+                return waitInNanos;
+            }
+        }
+        return 0;
+    }
+
+    private static TokenBucket[] newBuckets(Limit... limits) {
+        TokenBucket[] keyBuckets = new TokenBucket[limits.length];
+        for (int i = 0; i < limits.length; i++) {
+            keyBuckets[i] = new TokenBucket(limits[i].permits(), limits[i].window().toNanos(), TimeUnit.NANOSECONDS);
+        }
+        return keyBuckets;
+    }
+}
@@ -0,0 +1,96 @@
+package com.secureplatform.ratelimit;
+
+import com.secureplatform.security.UserPrincipal;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate Limit Filter
+ * Rejects requests over the configured rate with 429 Too Many Requests
+ *
+ * Two instances sit in the security chain: {@link #byClientIp} before the JWT filter, so
+ * floods are rejected before any token is verified, and {@link #byUser} after it, once the
+ * user id is known.
+ *
+ * Anonymous clients are keyed by {@code getRemoteAddr()}. Behind nginx that is the client
+ * address Tomcat resolved from X-Forwarded-For (server.forward-headers-strategy=native), not
+ * the proxy's, so clients do not share one budget.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    private static final String AUTH_PATH = "/api/auth/";
+    private static final String HEALTH_PATH = "/actuator/health";
+
+    private final RateLimiter rateLimiter;
+    private final boolean byUser;
+
+    private RateLimitFilter(RateLimiter rateLimiter, boolean byUser) {
+        this.rateLimiter = rateLimiter;
+        this.byUser = byUser;
+    }
+
+    public static RateLimitFilter byClientIp(RateLimiter rateLimiter) {
+        return new RateLimitFilter(rateLimiter, false);
+    }
+
+    public static RateLimitFilter byUser(RateLimiter rateLimiter) {
+        return new RateLimitFilter(rateLimiter, true);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !rateLimiter.isEnabled() || request.getServletPath().startsWith(HEALTH_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        long waitInNanos;
+        if (byUser) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication == null || !(authentication.getPrincipal() instanceof UserPrincipal principal)) {
+                filterChain.doFilter(request, response);
+                return;
+            }
+            waitInNanos = rateLimiter.tryAcquire(RateLimiter.Tier.USER, principal.getId().toString());
+        } else {
+            RateLimiter.Tier tier = request.getServletPath().startsWith(AUTH_PATH)
+                    ? RateLimiter.Tier.AUTH
+                    : RateLimiter.Tier.CLIENT;
+            waitInNanos = rateLimiter.tryAcquire(tier, request.getRemoteAddr());
+        }
+
+        if (waitInNanos > 0) {
+            logger.debug("Rate limit exceeded for {} {}", request.getRemoteAddr(), request.getServletPath());
+            long retryAfterInSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitInNanos + 999_999_999L));
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterInSeconds));
+            response.setContentType("application/json");
+            response.getWriter().write("{\"error\":\"Too Many Requests\",\"message\":\"Rate limit exceeded\"}");
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * Distinct per instance; both share this class name, which is the default attribute key.
+     */
+    @Override
+    protected String getAlreadyFilteredAttributeName() {
+        return super.getAlreadyFilteredAttributeName() + (byUser ? ".user" : ".client");
+    }
+}
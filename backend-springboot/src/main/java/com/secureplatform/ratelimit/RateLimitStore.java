@@ -0,0 +1,25 @@
+package com.secureplatform.ratelimit;
+
+import java.time.Duration;
+
+/**
+ * Rate Limit Store
+ * Holds the request counters behind {@link RateLimiter}; the Redis implementation shares
+ * them between replicas so each client gets one budget across the whole deployment
+ */
+public interface RateLimitStore {
+
+    /**
+     * A number of permits per window.
+     */
+    record Limit(int permits, Duration window) {
+    }
+
+    /**
+     * Counts one request against every limit, or none of them if any limit is exhausted.
+     * Limits are given from the shortest window to the longest.
+     *
+     * @return 0 if the request is allowed, otherwise the nanoseconds to wait before retrying
+     */
+    long tryAcquire(String key, Limit... limits);
+}
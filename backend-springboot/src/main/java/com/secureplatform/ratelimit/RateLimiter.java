@@ -0,0 +1,114 @@
+package com.secureplatform.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Rate Limiter
+ * Per-minute and per-hour limits for each client, enforcing the rate.limit.* properties
+ *
+ * Counters are kept by the configured {@link RateLimitStore}: in process by default, or in
+ * Redis when app.counters.store=redis so the limits hold across replicas.
+ */
+@Component
+public class RateLimiter {
+
+    /**
+     * Limit families; each keeps its own limits and counters.
+     */
+    public enum Tier {
+        /** Unauthenticated /api/auth/** requests, keyed by client IP */
+        AUTH("auth"),
+        /** All other requests, keyed by client IP */
+        CLIENT("client"),
+        /** Authenticated requests, keyed by user id */
+        USER("user");
+
+        private final String tag;
+
+        Tier(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    @Value("${rate.limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${rate.limit.requests.per.minute:100}")
+    private int userPerMinute;
+
+    @Value("${rate.limit.requests.per.hour:1000}")
+    private int userPerHour;
+
+    @Value("${rate.limit.client.requests.per.minute:300}")
+    private int clientPerMinute;
+
+    @Value("${rate.limit.client.requests.per.hour:3000}")
+    private int clientPerHour;
+
+    @Value("${rate.limit.auth.requests.per.minute:20}")
+    private int authPerMinute;
+
+    @Value("${rate.limit.auth.requests.per.hour:200}")
+    private int authPerHour;
+
+    @Autowired
+    private RateLimitStore rateLimitStore;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<Tier, RateLimitStore.Limit[]> limits = new EnumMap<>(Tier.class);
+    private final Map<Tier, Counter> allowed = new EnumMap<>(Tier.class);
+    private final Map<Tier, Counter> rejected = new EnumMap<>(Tier.class);
+
+    @PostConstruct
+    void init() {
+        limits.put(Tier.AUTH, limits(authPerMinute, authPerHour));
+        limits.put(Tier.CLIENT, limits(clientPerMinute, clientPerHour));
+        limits.put(Tier.USER, limits(userPerMinute, userPerHour));
+
+        for (Tier tier : Tier.values()) {
+            allowed.put(tier, decisionCounter(tier, "allowed"));
+            rejected.put(tier, decisionCounter(tier, "rejected"));
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Counts one request against the client's minute and hour limits.
+     *
+     * @return 0 if the request is allowed, otherwise the nanoseconds to wait before retrying
+     */
+    public long tryAcquire(Tier tier, String key) {
+        long waitInNanos = rateLimitStore.tryAcquire(tier.tag + ":" + key, limits.get(tier));
+        (waitInNanos == 0 ? allowed : rejected).get(tier).increment();
+        return waitInNanos;
+    }
+
+    private static RateLimitStore.Limit[] limits(int perMinute, int perHour) {
+        return new RateLimitStore.Limit[] {
+                new RateLimitStore.Limit(perMinute, Duration.ofMinutes(1)),
+                new RateLimitStore.Limit(perHour, Duration.ofHours(1))
+        };
+    }
+
+    private Counter decisionCounter(Tier tier, String result) {
+        return Counter.builder("rate.limit.requests")
+                .description("Rate limiter decisions")
+                .tag("tier", tier.tag)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
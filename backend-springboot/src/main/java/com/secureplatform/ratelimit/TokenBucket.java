@@ -0,0 +1,52 @@
+package com.secureplatform.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token Bucket
+ * Lock-free token bucket holding its whole state in one AtomicLong
+ *
+ * Uses the GCRA formulation: instead of a token count the bucket stores the theoretical
+ * arrival time of the next request, so refilling is implicit in the clock advancing. A
+ * request is admitted while that time is less than {@code capacity} emission intervals
+ * ahead of now, which allows bursts of up to {@code capacity} requests.
+ */
+final class TokenBucket {
+
+    private final long emissionIntervalInNanos;
+    private final long burstToleranceInNanos;
+    private final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+
+    TokenBucket(int capacity, long window, TimeUnit unit) {
+        this.emissionIntervalInNanos = unit.toNanos(window) / capacity;
+        this.burstToleranceInNanos = emissionIntervalInNanos * (capacity - 1);
+    }
+
+    /**
+     * Takes one token.
+     *
+     * @return 0 if the request is admitted, otherwise the nanoseconds until a token is available
+     */
+    long tryAcquire(long nowInNanos) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long start = Math.max(current, nowInNanos);
+            long waitInNanos = start - nowInNanos - burstToleranceInNanos;
+            if (waitInNanos > 0) {
+                return waitInNanos;
+            }
+            if (theoreticalArrival.compareAndSet(current, start + emissionIntervalInNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Gives back a token taken by {@link #tryAcquire(long)}, for a request another limit rejected.
+     * Lowering the arrival time by one interval undoes the charge whatever was admitted since.
+     */
+    void refund() {
+        theoreticalArrival.addAndGet(-emissionIntervalInNanos);
+    }
+}
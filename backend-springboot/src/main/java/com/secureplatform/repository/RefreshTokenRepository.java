@@ -0,0 +1,32 @@
+package com.secureplatform.repository;
+
+import com.secureplatform.model.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Refresh Token Repository
+ * Provides database operations for RefreshToken entities, keyed by token hash
+ */
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, String> {
+
+    /**
+     * Claims an unused token for one exchange. Returns 0 if another request already used it.
+     */
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.usedAt = :usedAt WHERE t.tokenHash = :tokenHash AND t.usedAt IS NULL")
+    int markUsed(String tokenHash, LocalDateTime usedAt);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.familyId = :familyId")
+    int deleteFamily(String familyId);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.userId = :userId")
+    int deleteAllForUser(Long userId);
+}
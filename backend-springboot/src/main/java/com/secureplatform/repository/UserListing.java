@@ -0,0 +1,32 @@
+package com.secureplatform.repository;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * User Listing
+ * Read-only row of the admin user listings, selected with a constructor expression so
+ * no entity is hydrated and the password hash never leaves the database
+ */
+public record UserListing(
+        Long id,
+        String username,
+        String email,
+        boolean enabled,
+        LocalDateTime lastLoginAt,
+        Integer failedLoginAttempts,
+        LocalDateTime lockedUntil,
+        LocalDateTime createdAt,
+        List<String> roles) {
+
+    /**
+     * Used by the JPQL queries, which aggregate the role names into one comma-separated column.
+     */
+    public UserListing(Long id, String username, String email, boolean enabled, LocalDateTime lastLoginAt,
+                       Integer failedLoginAttempts, LocalDateTime lockedUntil, LocalDateTime createdAt,
+                       String roleNames) {
+        this(id, username, email, enabled, lastLoginAt, failedLoginAttempts, lockedUntil, createdAt,
+                roleNames == null || roleNames.isEmpty() ? List.of() : Arrays.asList(roleNames.split(",")));
+    }
+}
@@ -1,14 +1,23 @@
 package com.secureplatform.repository;
 
 import com.secureplatform.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * User Repository
@@ -21,21 +30,119 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByEmail(String email);
 
+    /**
+     * Resolves a login name against username or email in one query, with roles fetch-joined.
+     * May return two rows when one user's username equals another user's email.
+     */
+    @Query("SELECT DISTINCT u FROM User u LEFT JOIN FETCH u.roles WHERE u.username = :login OR u.email = :login")
+    List<User> findByUsernameOrEmailWithRoles(String login);
+
+    @Query("SELECT u FROM User u LEFT JOIN FETCH u.roles WHERE u.id = :id")
+    Optional<User> findByIdWithRoles(Long id);
+
+    @Modifying
+    @Query("UPDATE User u SET u.lastLoginAt = :loginAt, u.lastLoginIp = :ipAddress, " +
+           "u.failedLoginAttempts = 0, u.lockedUntil = NULL, u.updatedAt = :loginAt WHERE u.id = :id")
+    int recordSuccessfulLogin(Long id, LocalDateTime loginAt, String ipAddress);
+
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.id = :id")
+    int updatePassword(Long id, String password);
+
+    /**
+     * Increments the failed-attempt counter and locks the account once it reaches the threshold.
+     * Right-hand sides see the row as it was before the update.
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.failedLoginAttempts = COALESCE(u.failedLoginAttempts, 0) + 1, " +
+           "u.lastLoginIp = :ipAddress, " +
+           "u.lockedUntil = CASE WHEN COALESCE(u.failedLoginAttempts, 0) + 1 >= :maxAttempts " +
+           "THEN :lockUntil ELSE u.lockedUntil END, " +
+           "u.tokenVersion = CASE WHEN COALESCE(u.failedLoginAttempts, 0) + 1 = :maxAttempts " +
+           "THEN COALESCE(u.tokenVersion, 0) + 1 ELSE u.tokenVersion END " +
+           "WHERE u.id = :id")
+    int recordFailedLogin(Long id, String ipAddress, int maxAttempts, LocalDateTime lockUntil);
+
+    /**
+     * Writes a lock decided by the LockoutStore and revokes the user's claims-based tokens.
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.failedLoginAttempts = :failedAttempts, u.lockedUntil = :lockUntil, " +
+           "u.tokenVersion = COALESCE(u.tokenVersion, 0) + 1 WHERE u.id = :id")
+    int lockUser(Long id, int failedAttempts, LocalDateTime lockUntil);
+
     boolean existsByUsername(String username);
 
     boolean existsByEmail(String email);
 
-    @Query("SELECT u FROM User u WHERE u.enabled = true")
-    List<User> findAllActiveUsers();
+    // Set-based uniqueness checks for bulk imports
+    @Query("SELECT u.username FROM User u WHERE u.username IN :usernames")
+    List<String> findExistingUsernames(Collection<String> usernames);
+
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    List<String> findExistingEmails(Collection<String> emails);
+
+    @Query("SELECT COALESCE(u.tokenVersion, 0) FROM User u WHERE u.id = :id AND u.enabled = true")
+    Optional<Integer> findActiveTokenVersion(Long id);
+
+    // Admin listings: one row per user with the role names aggregated in the same statement,
+    // instead of full entities whose roles are lazy-loaded per row during serialization.
+    // Read-only transactions, so they are served by a read replica when one is configured
+    String USER_LISTING_SELECT = "SELECT new com.secureplatform.repository.UserListing(" +
+            "u.id, u.username, u.email, u.enabled, u.lastLoginAt, u.failedLoginAttempts, u.lockedUntil, u.createdAt, " +
+            "listagg(cast(r.name as String), ',') within group (order by cast(r.name as String))) " +
+            "FROM User u LEFT JOIN u.roles r ";
+    String USER_LISTING_GROUP_BY = " GROUP BY u.id, u.username, u.email, u.enabled, u.lastLoginAt, " +
+            "u.failedLoginAttempts, u.lockedUntil, u.createdAt";
 
-    @Query("SELECT u FROM User u WHERE u.lastLoginAt IS NOT NULL ORDER BY u.lastLoginAt DESC")
-    List<User> findUsersByLastLogin();
+    @Transactional(readOnly = true)
+    @Query(value = USER_LISTING_SELECT + USER_LISTING_GROUP_BY + " ORDER BY u.id",
+           countQuery = "SELECT COUNT(u) FROM User u")
+    Page<UserListing> findListingPage(Pageable pageable);
 
-    @Query("SELECT u FROM User u WHERE u.failedLoginAttempts > 3")
-    List<User> findUsersWithFailedLoginAttempts();
+    @Transactional(readOnly = true)
+    @Query(USER_LISTING_SELECT + "WHERE u.enabled = true" + USER_LISTING_GROUP_BY + " ORDER BY u.id")
+    List<UserListing> findActiveListings();
+
+    @Transactional(readOnly = true)
+    @Query(USER_LISTING_SELECT + "WHERE u.failedLoginAttempts > 3" + USER_LISTING_GROUP_BY +
+           " ORDER BY u.failedLoginAttempts DESC, u.id")
+    List<UserListing> findListingsWithFailedLoginAttempts();
+
+    // Exports stream the same rows and must be consumed inside a read-only transaction. The fetch
+    // size stops the driver from buffering the whole result; PostgreSQL then reads through a cursor
+    String EXPORT_FETCH_SIZE = "1000";
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+                 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query(USER_LISTING_SELECT + "WHERE u.enabled = true" + USER_LISTING_GROUP_BY + " ORDER BY u.id")
+    Stream<UserListing> streamActiveListings();
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+                 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query(USER_LISTING_SELECT + "WHERE u.lastLoginAt IS NOT NULL" + USER_LISTING_GROUP_BY +
+           " ORDER BY u.lastLoginAt DESC, u.id")
+    Stream<UserListing> streamListingsByLastLogin();
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+                 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query(USER_LISTING_SELECT + "WHERE u.failedLoginAttempts > 3" + USER_LISTING_GROUP_BY +
+           " ORDER BY u.failedLoginAttempts DESC, u.id")
+    Stream<UserListing> streamListingsWithFailedLoginAttempts();
 
     Page<User> findAll(Pageable pageable);
 
-    @Query("SELECT u FROM User u WHERE u.username LIKE %:searchTerm% OR u.email LIKE %:searchTerm%")
-    Page<User> findByUsernameContainingOrEmailContaining(String searchTerm, Pageable pageable);
+    // Keyset (seek) pagination: each page continues after the last row of the previous one,
+    // so deep pages cost the same as the first and no COUNT(*) is issued
+    List<User> findAllByOrderByIdAsc(Limit limit);
+
+    @Query("SELECT u FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<User> findPageAfterId(Long afterId, Limit limit);
+
+    List<User> findAllByOrderByCreatedAtAscIdAsc(Limit limit);
+
+    // The redundant >= bound gives the planner a range start on idx_users_created_at_id
+    @Query("SELECT u FROM User u WHERE u.createdAt >= :createdAt " +
+           "AND (u.createdAt > :createdAt OR u.id > :afterId) ORDER BY u.createdAt, u.id")
+    List<User> findPageAfterCreatedAt(LocalDateTime createdAt, Long afterId, Limit limit);
 }
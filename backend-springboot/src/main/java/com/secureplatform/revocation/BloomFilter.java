@@ -0,0 +1,90 @@
+package com.secureplatform.revocation;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom Filter
+ * Fixed-size membership filter over token ids: no false negatives and a bounded false positive
+ * rate, answered by hashing the id once and reading k bits without allocating
+ *
+ * Bits are set with atomic ORs, so adds may run alongside lookups. Ids cannot be removed;
+ * {@link TokenRevocationList} builds a fresh filter when it prunes expired tokens.
+ */
+final class BloomFilter {
+
+    private static final double LN2 = Math.log(2);
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+    private final long capacity;
+
+    private BloomFilter(long capacity, long bitCount, int hashCount) {
+        int wordCount = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (bitCount + 63) >>> 6));
+        this.words = new AtomicLongArray(wordCount);
+        this.bitCount = (long) wordCount << 6;
+        this.hashCount = hashCount;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Sizes a filter for {@code capacity} ids at the given false positive rate.
+     */
+    static BloomFilter create(long capacity, double falsePositiveRate) {
+        long n = Math.max(capacity, 1);
+        long bits = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (LN2 * LN2));
+        int hashes = Math.max(1, (int) Math.round((double) bits / n * LN2));
+        return new BloomFilter(n, bits, hashes);
+    }
+
+    /**
+     * Number of ids the filter was sized for; past it the false positive rate climbs.
+     */
+    long capacity() {
+        return capacity;
+    }
+
+    void add(String id) {
+        long hash = hash(id);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = bitIndex(h1, h2, i);
+            words.getAndAccumulate((int) (bit >>> 6), 1L << bit, (word, mask) -> word | mask);
+        }
+    }
+
+    boolean mightContain(String id) {
+        long hash = hash(id);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = bitIndex(h1, h2, i);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Kirsch-Mitzenmacher: the k indexes are derived from the two halves of one 64-bit hash
+    private long bitIndex(int h1, int h2, int i) {
+        long combined = h1 + (long) i * h2;
+        return (combined < 0 ? ~combined : combined) % bitCount;
+    }
+
+    // FNV-1a over the characters, finished with the MurmurHash3 64-bit mixer
+    private static long hash(String id) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < id.length(); i++) {
+            hash ^= id.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
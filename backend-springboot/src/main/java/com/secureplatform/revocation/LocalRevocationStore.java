@@ -0,0 +1,27 @@
+package com.secureplatform.revocation;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Local Revocation Store
+ * Keeps revocations only in this JVM's {@link TokenRevocationList}; exact with a single replica,
+ * and revocations are forgotten on restart
+ */
+public class LocalRevocationStore implements RevocationStore {
+
+    @Override
+    public void add(Revocation revocation) {
+        // The revocation list already holds it
+    }
+
+    @Override
+    public List<Revocation> loadActive(long now, long maxTokenLifetimeMs) {
+        return List.of();
+    }
+
+    @Override
+    public void subscribe(Consumer<Revocation> listener) {
+        // No other replicas to hear from
+    }
+}
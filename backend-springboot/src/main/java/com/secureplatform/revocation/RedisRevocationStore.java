@@ -0,0 +1,111 @@
+package com.secureplatform.revocation;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Redis Revocation Store
+ * Revocations shared by all replicas: two sorted sets hold the revoked token ids (scored by
+ * expiry) and the per-user cutoffs (scored by cutoff), and a pub/sub channel pushes each new
+ * revocation to the other replicas as it happens
+ *
+ * Pub/sub delivery is best effort; a replica that misses a message picks the revocation up on
+ * its next {@link #loadActive(long, long)}. Redis errors propagate as {@link DataAccessException}.
+ */
+public class RedisRevocationStore implements RevocationStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisRevocationStore.class);
+
+    private static final String TOKENS_KEY = "jwt:revoked:tokens";
+    private static final String USERS_KEY = "jwt:revoked:users";
+    private static final String CHANNEL = "jwt:revocations";
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    public RedisRevocationStore(StringRedisTemplate redisTemplate, RedisMessageListenerContainer listenerContainer) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+    }
+
+    @Override
+    public void add(Revocation revocation) {
+        String key = revocation.type() == Revocation.Type.TOKEN ? TOKENS_KEY : USERS_KEY;
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, String> redis = (RedisOperations<String, String>) operations;
+                redis.opsForZSet().add(key, revocation.id(), revocation.at());
+                redis.convertAndSend(CHANNEL, encode(revocation));
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public List<Revocation> loadActive(long now, long maxTokenLifetimeMs) {
+        ZSetOperations<String, String> sets = redisTemplate.opsForZSet();
+        sets.removeRangeByScore(TOKENS_KEY, Double.NEGATIVE_INFINITY, now);
+        sets.removeRangeByScore(USERS_KEY, Double.NEGATIVE_INFINITY, now - maxTokenLifetimeMs);
+
+        List<Revocation> active = new ArrayList<>();
+        collect(sets.rangeWithScores(TOKENS_KEY, 0, -1), Revocation.Type.TOKEN, active);
+        collect(sets.rangeWithScores(USERS_KEY, 0, -1), Revocation.Type.USER, active);
+        return active;
+    }
+
+    @Override
+    public void subscribe(Consumer<Revocation> listener) {
+        listenerContainer.addMessageListener((message, pattern) -> {
+            Revocation revocation = decode(new String(message.getBody(), StandardCharsets.UTF_8));
+            if (revocation != null) {
+                listener.accept(revocation);
+            }
+        }, new ChannelTopic(CHANNEL));
+    }
+
+    private static void collect(Set<ZSetOperations.TypedTuple<String>> entries, Revocation.Type type,
+                                List<Revocation> into) {
+        if (entries == null) {
+            return;
+        }
+        for (ZSetOperations.TypedTuple<String> entry : entries) {
+            if (entry.getValue() != null && entry.getScore() != null) {
+                into.add(new Revocation(type, entry.getValue(), entry.getScore().longValue()));
+            }
+        }
+    }
+
+    // "<T|U>:<at>:<id>"
+    private static String encode(Revocation revocation) {
+        return (revocation.type() == Revocation.Type.TOKEN ? "T" : "U") + ":" + revocation.at() + ":" + revocation.id();
+    }
+
+    private static Revocation decode(String message) {
+        String[] parts = message.split(":", 3);
+        try {
+            if (parts.length == 3 && ("T".equals(parts[0]) || "U".equals(parts[0]))) {
+                Revocation.Type type = "T".equals(parts[0]) ? Revocation.Type.TOKEN : Revocation.Type.USER;
+                return new Revocation(type, parts[2], Long.parseLong(parts[1]));
+            }
+        } catch (NumberFormatException ex) {
+            // Falls through to the warning
+        }
+        logger.warn("Ignoring malformed revocation message: {}", message);
+        return null;
+    }
+}
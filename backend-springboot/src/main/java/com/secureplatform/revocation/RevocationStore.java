@@ -0,0 +1,57 @@
+package com.secureplatform.revocation;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Revocation Store
+ * Backing store for token revocations, so every replica rejects a token revoked on any of them
+ *
+ * Requests never read the store: each replica answers from its {@link TokenRevocationList}, which
+ * receives new revocations through {@link #subscribe(Consumer)} and reloads the full set from
+ * {@link #loadActive(long, long)} periodically to recover anything it missed.
+ */
+public interface RevocationStore {
+
+    /**
+     * A revoked token, or a cutoff revoking every token of a user issued at or before it.
+     *
+     * @param id    the token id (jti) or the user id
+     * @param at    for a token its expiry, for a user the cutoff, in epoch milliseconds
+     */
+    record Revocation(Type type, String id, long at) {
+
+        public enum Type { TOKEN, USER }
+
+        public static Revocation token(String tokenId, long expiresAtMs) {
+            return new Revocation(Type.TOKEN, tokenId, expiresAtMs);
+        }
+
+        public static Revocation user(Long userId, long issuedBeforeMs) {
+            return new Revocation(Type.USER, userId.toString(), issuedBeforeMs);
+        }
+
+        /**
+         * When the revocation stops mattering: once the token, or every token of the user issued
+         * before the cutoff, has expired.
+         */
+        public long expiresAt(long maxTokenLifetimeMs) {
+            return type == Type.TOKEN ? at : at + maxTokenLifetimeMs;
+        }
+    }
+
+    /**
+     * Records the revocation and notifies the other replicas.
+     */
+    void add(Revocation revocation);
+
+    /**
+     * Drops revocations that no longer matter at {@code now} and returns the rest.
+     */
+    List<Revocation> loadActive(long now, long maxTokenLifetimeMs);
+
+    /**
+     * Registers a listener for revocations added on other replicas (and possibly this one).
+     */
+    void subscribe(Consumer<Revocation> listener);
+}
@@ -0,0 +1,193 @@
+package com.secureplatform.revocation;
+
+import com.secureplatform.revocation.RevocationStore.Revocation;
+import com.secureplatform.security.JwtClaims;
+import com.secureplatform.security.JwtTokenProvider;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Token Revocation List
+ * In-memory view of the revoked tokens, checked on every authenticated request
+ *
+ * A token is revoked on its own (logout) by its jti, or with every other token of its user
+ * (logout everywhere, account deletion) by a cutoff on the issue time. Token ids go through a
+ * Bloom filter first, so a token that was never revoked - nearly every request - is cleared by
+ * hashing its id and reading a few bits; filter hits are confirmed against the exact set.
+ * Entries are dropped once the tokens they cover have expired, and the filter is rebuilt
+ * without them.
+ *
+ * Revocations are written to the {@link RevocationStore} so other replicas learn of them, and
+ * the list reloads the store every app.jwt.revocation.sync-interval. A revocation the store
+ * could not take is kept and retried on the next sync; it applies on this replica meanwhile.
+ */
+@Component
+public class TokenRevocationList {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationList.class);
+
+    @Value("${app.jwt.revocation.expected-tokens:100000}")
+    private long expectedTokens;
+
+    @Value("${app.jwt.revocation.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    @Autowired
+    private RevocationStore store;
+
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Token id -> expiry, user id -> issued-before cutoff (epoch milliseconds)
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+    private final Map<Long, Long> revokedUsers = new ConcurrentHashMap<>();
+    private final Queue<Revocation> unpublished = new ConcurrentLinkedQueue<>();
+
+    private volatile BloomFilter filter;
+
+    private Counter rejected;
+    private Counter falsePositives;
+
+    @PostConstruct
+    void init() {
+        this.filter = BloomFilter.create(expectedTokens, falsePositiveRate);
+        Gauge.builder("jwt.revocation.tokens", revokedTokens, Map::size).register(meterRegistry);
+        Gauge.builder("jwt.revocation.users", revokedUsers, Map::size).register(meterRegistry);
+        this.rejected = Counter.builder("jwt.revocation.rejected")
+                .description("Requests rejected because their token was revoked")
+                .register(meterRegistry);
+        this.falsePositives = Counter.builder("jwt.revocation.false-positives")
+                .description("Bloom filter hits not confirmed by the exact set")
+                .register(meterRegistry);
+
+        store.subscribe(this::apply);
+        sync();
+    }
+
+    /**
+     * Whether the token was revoked, individually or with every token of its user.
+     */
+    public boolean isRevoked(JwtClaims claims) {
+        if (!revokedUsers.isEmpty()) {
+            Long issuedBefore = revokedUsers.get(claims.getUserId());
+            if (issuedBefore != null && (claims.getIssuedAt() == null
+                    || claims.getIssuedAt().getTime() <= issuedBefore)) {
+                rejected.increment();
+                return true;
+            }
+        }
+
+        String tokenId = claims.getTokenId();
+        if (tokenId == null || !filter.mightContain(tokenId)) {
+            return false;
+        }
+        if (revokedTokens.containsKey(tokenId)) {
+            rejected.increment();
+            return true;
+        }
+        falsePositives.increment();
+        return false;
+    }
+
+    /**
+     * Revokes one token until it expires. Tokens without an id predate revocation support and
+     * can only be revoked through {@link #revokeUser(Long)}.
+     */
+    public void revokeToken(JwtClaims claims) {
+        if (claims.getTokenId() == null || claims.getExpiration() == null) {
+            throw new IllegalArgumentException("Token has no id; revoke the user's tokens instead");
+        }
+        publish(Revocation.token(claims.getTokenId(), claims.getExpiration().getTime()));
+    }
+
+    /**
+     * Revokes every token of the user issued up to now. Tokens carry their issue time in
+     * milliseconds, so one issued right after (a new login) stays valid.
+     */
+    public void revokeUser(Long userId) {
+        publish(Revocation.user(userId, System.currentTimeMillis()));
+    }
+
+    /**
+     * Retries revocations the store missed, reloads the store and prunes expired entries.
+     */
+    @Scheduled(fixedDelayString = "${app.jwt.revocation.sync-interval:60000}",
+               initialDelayString = "${app.jwt.revocation.sync-interval:60000}")
+    public void sync() {
+        long now = System.currentTimeMillis();
+        long maxLifetime = tokenProvider.getMaxTokenLifetimeMs();
+        try {
+            Revocation pending;
+            while ((pending = unpublished.peek()) != null) {
+                store.add(pending);
+                unpublished.poll();
+            }
+            store.loadActive(now, maxLifetime).forEach(this::apply);
+        } catch (DataAccessException ex) {
+            logger.warn("Revocation store unavailable, {} revocations not yet shared: {}",
+                    unpublished.size(), ex.getMessage());
+        }
+        prune(now, maxLifetime);
+    }
+
+    private void publish(Revocation revocation) {
+        apply(revocation);
+        try {
+            store.add(revocation);
+        } catch (DataAccessException ex) {
+            logger.error("Revocation store unavailable, retrying on the next sync: {}", ex.getMessage());
+            unpublished.add(revocation);
+        }
+    }
+
+    // Adds and filter rebuilds are serialized; lookups read the filter and maps without locking
+    private synchronized void apply(Revocation revocation) {
+        if (revocation.expiresAt(tokenProvider.getMaxTokenLifetimeMs()) <= System.currentTimeMillis()) {
+            return;
+        }
+        if (revocation.type() == Revocation.Type.USER) {
+            revokedUsers.merge(Long.valueOf(revocation.id()), revocation.at(), Math::max);
+            return;
+        }
+        // Into the filter first: a lookup that sees the exact entry must also pass the filter
+        BloomFilter current = filter;
+        current.add(revocation.id());
+        revokedTokens.merge(revocation.id(), revocation.at(), Math::max);
+        if (revokedTokens.size() > current.capacity()) {
+            rebuildFilter();
+        }
+    }
+
+    private synchronized void prune(long now, long maxLifetime) {
+        int tokens = revokedTokens.size();
+        revokedTokens.values().removeIf(expiresAt -> expiresAt <= now);
+        revokedUsers.values().removeIf(issuedBefore -> issuedBefore + maxLifetime <= now);
+        if (revokedTokens.size() < tokens) {
+            rebuildFilter();
+        }
+    }
+
+    private void rebuildFilter() {
+        // Room to grow before the next rebuild when revocations outnumber the expected count
+        BloomFilter rebuilt = BloomFilter.create(Math.max(expectedTokens, 2L * revokedTokens.size()), falsePositiveRate);
+        revokedTokens.keySet().forEach(rebuilt::add);
+        this.filter = rebuilt;
+    }
+}
@@ -0,0 +1,197 @@
+package com.secureplatform.search;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-Memory User Search Index
+ * Trigram inverted index for H2/dev, loaded from the users table once the application is
+ * ready and kept in sync by UserService
+ *
+ * Substring candidates come from intersecting the postings of the term's trigrams and are
+ * then verified against the fields; short terms are looked up as prefixes in a sorted map of
+ * field values.
+ */
+public class InMemoryUserSearchIndex implements UserSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryUserSearchIndex.class);
+
+    private static final Comparator<UserSearchHit> RANK_ORDER = Comparator
+            .comparingInt(UserSearchHit::tier).reversed()
+            .thenComparingInt(UserSearchHit::matchLength)
+            .thenComparingLong(UserSearchHit::id);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final Map<String, Set<Long>> trigramPostings = new HashMap<>();
+    private final NavigableMap<String, Set<Long>> fieldPostings = new TreeMap<>();
+
+    public InMemoryUserSearchIndex(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        jdbcTemplate.query("SELECT id, username, email FROM users",
+                rs -> { index(rs.getLong(1), rs.getString(2), rs.getString(3)); });
+        logger.info("User search index loaded: {} users in {} ms", documents.size(), System.currentTimeMillis() - start);
+    }
+
+    @Override
+    public List<UserSearchHit> search(String term, UserSearchCursor after, int limit) {
+        String normalized = UserSearchIndex.normalize(term);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        boolean substring = normalized.length() >= MIN_SUBSTRING_LENGTH;
+
+        List<UserSearchHit> hits = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Long id : substring ? substringCandidates(normalized) : prefixCandidates(normalized)) {
+                UserSearchHit hit = rank(id, documents.get(id), normalized, substring);
+                if (hit != null && hit.isAfter(after)) {
+                    hits.add(hit);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        hits.sort(RANK_ORDER);
+        return hits.size() > limit ? new ArrayList<>(hits.subList(0, limit)) : hits;
+    }
+
+    @Override
+    public void index(Long userId, String username, String email) {
+        Document document = new Document(UserSearchIndex.normalize(username), UserSearchIndex.normalize(email));
+        lock.writeLock().lock();
+        try {
+            unindex(userId);
+            documents.put(userId, document);
+            for (String field : document.fields()) {
+                fieldPostings.computeIfAbsent(field, key -> new HashSet<>()).add(userId);
+                for (String trigram : trigrams(field)) {
+                    trigramPostings.computeIfAbsent(trigram, key -> new HashSet<>()).add(userId);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long userId) {
+        lock.writeLock().lock();
+        try {
+            unindex(userId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void unindex(Long userId) {
+        Document document = documents.remove(userId);
+        if (document == null) {
+            return;
+        }
+        for (String field : document.fields()) {
+            removePosting(fieldPostings, field, userId);
+            for (String trigram : trigrams(field)) {
+                removePosting(trigramPostings, trigram, userId);
+            }
+        }
+    }
+
+    private Collection<Long> substringCandidates(String term) {
+        List<Set<Long>> postings = new ArrayList<>();
+        for (String trigram : trigrams(term)) {
+            Set<Long> posting = trigramPostings.get(trigram);
+            if (posting == null) {
+                return List.of();
+            }
+            postings.add(posting);
+        }
+
+        postings.sort(Comparator.comparingInt(Set::size));
+        Set<Long> candidates = new HashSet<>(postings.get(0));
+        for (int i = 1; i < postings.size() && !candidates.isEmpty(); i++) {
+            candidates.retainAll(postings.get(i));
+        }
+        return candidates;
+    }
+
+    private Collection<Long> prefixCandidates(String prefix) {
+        Set<Long> candidates = new HashSet<>();
+        fieldPostings.subMap(prefix, true, prefix + Character.MAX_VALUE, false)
+                .values()
+                .forEach(candidates::addAll);
+        return candidates;
+    }
+
+    private static UserSearchHit rank(Long id, Document document, String term, boolean substring) {
+        int usernameTier = tier(document.username(), term, substring);
+        int emailTier = tier(document.email(), term, substring);
+        if (usernameTier == 0 && emailTier == 0) {
+            return null;
+        }
+
+        int matchLength;
+        if (usernameTier != emailTier) {
+            matchLength = usernameTier > emailTier ? document.username().length() : document.email().length();
+        } else {
+            matchLength = Math.min(document.username().length(), document.email().length());
+        }
+        return new UserSearchHit(id, Math.max(usernameTier, emailTier), matchLength);
+    }
+
+    private static int tier(String field, String term, boolean substring) {
+        if (field.equals(term)) {
+            return UserSearchHit.EXACT;
+        }
+        if (field.startsWith(term)) {
+            return UserSearchHit.PREFIX;
+        }
+        return substring && field.contains(term) ? UserSearchHit.SUBSTRING : 0;
+    }
+
+    private static Set<String> trigrams(String value) {
+        Set<String> trigrams = new HashSet<>();
+        for (int i = 0; i + 3 <= value.length(); i++) {
+            trigrams.add(value.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+
+    private static void removePosting(Map<String, Set<Long>> postings, String key, Long userId) {
+        Set<Long> posting = postings.get(key);
+        if (posting != null && posting.remove(userId) && posting.isEmpty()) {
+            postings.remove(key);
+        }
+    }
+
+    private record Document(String username, String email) {
+
+        List<String> fields() {
+            return List.of(username, email);
+        }
+    }
+}
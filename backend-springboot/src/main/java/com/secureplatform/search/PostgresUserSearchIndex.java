@@ -0,0 +1,74 @@
+package com.secureplatform.search;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.List;
+
+/**
+ * Postgres User Search Index
+ * Searches the users table through pg_trgm GIN indexes on lower(username) and lower(email),
+ * with text_pattern_ops B-tree indexes serving exact and prefix matches
+ *
+ * The indexes are created by the V2 migration and kept current by the database, so
+ * {@link #index} and {@link #remove} do nothing.
+ */
+public class PostgresUserSearchIndex implements UserSearchIndex {
+
+    private static final String SEARCH_SQL =
+            "SELECT id, tier, match_length FROM (" +
+            "SELECT id, GREATEST(username_tier, email_tier) AS tier, " +
+            "CASE WHEN username_tier > email_tier THEN length(username) " +
+            "WHEN email_tier > username_tier THEN length(email) " +
+            "ELSE LEAST(length(username), length(email)) END AS match_length " +
+            "FROM (SELECT id, username, email, " +
+            tier("username") + " AS username_tier, " + tier("email") + " AS email_tier " +
+            "FROM users WHERE lower(username) LIKE :pattern ESCAPE '\\' OR lower(email) LIKE :pattern ESCAPE '\\'" +
+            ") matches) ranked " +
+            "WHERE tier < :afterTier OR (tier = :afterTier AND (match_length > :afterLength " +
+            "OR (match_length = :afterLength AND id > :afterId))) " +
+            "ORDER BY tier DESC, match_length, id LIMIT :limit";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public PostgresUserSearchIndex(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<UserSearchHit> search(String term, UserSearchCursor after, int limit) {
+        String normalized = UserSearchIndex.normalize(term);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+
+        String escaped = normalized.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        String prefix = escaped + "%";
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("term", normalized)
+                .addValue("prefix", prefix)
+                .addValue("pattern", normalized.length() >= MIN_SUBSTRING_LENGTH ? "%" + prefix : prefix)
+                .addValue("afterTier", after.tier())
+                .addValue("afterLength", after.matchLength())
+                .addValue("afterId", after.id())
+                .addValue("limit", limit);
+
+        return jdbcTemplate.query(SEARCH_SQL, parameters,
+                (rs, rowNum) -> new UserSearchHit(rs.getLong("id"), rs.getInt("tier"), rs.getInt("match_length")));
+    }
+
+    @Override
+    public void index(Long userId, String username, String email) {
+    }
+
+    @Override
+    public void remove(Long userId) {
+    }
+
+    private static String tier(String column) {
+        return "CASE WHEN lower(" + column + ") = :term THEN " + UserSearchHit.EXACT +
+               " WHEN lower(" + column + ") LIKE :prefix ESCAPE '\\' THEN " + UserSearchHit.PREFIX +
+               " WHEN lower(" + column + ") LIKE :pattern ESCAPE '\\' THEN " + UserSearchHit.SUBSTRING +
+               " ELSE 0 END";
+    }
+}
@@ -0,0 +1,45 @@
+package com.secureplatform.search;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * User Search Cursor
+ * Continuation token for ranked search results: the rank of the last hit of a page
+ */
+public record UserSearchCursor(int tier, int matchLength, long id) {
+
+    private static final String VERSION = "s1";
+
+    /**
+     * Ranks before every hit.
+     */
+    public static final UserSearchCursor FIRST = new UserSearchCursor(UserSearchHit.EXACT + 1, 0, 0);
+
+    public static UserSearchCursor after(UserSearchHit hit) {
+        return new UserSearchCursor(hit.tier(), hit.matchLength(), hit.id());
+    }
+
+    public String encode() {
+        String value = String.join("|", VERSION, String.valueOf(tier), String.valueOf(matchLength), String.valueOf(id));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}; an empty token starts from the best hit.
+     */
+    public static UserSearchCursor decode(String token) {
+        if (token == null || token.isEmpty()) {
+            return FIRST;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|");
+            if (parts.length != 4 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new UserSearchCursor(Integer.parseInt(parts[1]), Integer.parseInt(parts[2]), Long.parseLong(parts[3]));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid cursor", ex);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.secureplatform.search;
+
+/**
+ * User Search Hit
+ * A matching user and its rank: the match tier of its best field (3 exact, 2 prefix,
+ * 1 substring) and that field's length, shorter fields being closer matches
+ */
+public record UserSearchHit(long id, int tier, int matchLength) {
+
+    public static final int EXACT = 3;
+    public static final int PREFIX = 2;
+    public static final int SUBSTRING = 1;
+
+    /**
+     * Whether this hit ranks after the cursor; hits are ordered by tier descending,
+     * then match length and id ascending.
+     */
+    public boolean isAfter(UserSearchCursor cursor) {
+        if (tier != cursor.tier()) {
+            return tier < cursor.tier();
+        }
+        if (matchLength != cursor.matchLength()) {
+            return matchLength > cursor.matchLength();
+        }
+        return id > cursor.id();
+    }
+}
@@ -0,0 +1,36 @@
+package com.secureplatform.search;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * User Search Index
+ * Case-insensitive search over usernames and emails, ranked exact, then prefix, then substring
+ *
+ * Terms of at least {@link #MIN_SUBSTRING_LENGTH} characters match anywhere in a field; shorter
+ * terms only match as a prefix, since one or two characters select too much of the table to
+ * be served from a trigram index.
+ */
+public interface UserSearchIndex {
+
+    int MIN_SUBSTRING_LENGTH = 3;
+
+    /**
+     * Returns up to {@code limit} hits ranked after the cursor.
+     */
+    List<UserSearchHit> search(String term, UserSearchCursor after, int limit);
+
+    /**
+     * Adds or replaces a user; a no-op for indexes maintained by the database.
+     */
+    void index(Long userId, String username, String email);
+
+    /**
+     * Removes a user; a no-op for indexes maintained by the database.
+     */
+    void remove(Long userId);
+
+    static String normalize(String term) {
+        return term.trim().toLowerCase(Locale.ROOT);
+    }
+}
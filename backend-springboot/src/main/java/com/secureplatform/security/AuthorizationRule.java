@@ -0,0 +1,121 @@
+package com.secureplatform.security;
+
+import com.secureplatform.model.ERole;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.function.Supplier;
+
+/**
+ * Authorization Rule
+ * A precompiled access rule: permit all, deny all, any authenticated user, or any of a set of
+ * roles held as an ERole bitmask
+ *
+ * Decisions are the shared GRANTED and DENIED instances. Role checks against a UserPrincipal
+ * are a single bit test; other principals fall back to comparing authority names.
+ */
+public final class AuthorizationRule {
+
+    public static final AuthorizationDecision GRANTED = new AuthorizationDecision(true);
+    public static final AuthorizationDecision DENIED = new AuthorizationDecision(false);
+
+    private enum Kind { PERMIT_ALL, DENY_ALL, AUTHENTICATED, ANY_ROLE }
+
+    // values() clones its array on every call
+    private static final ERole[] ROLES = ERole.values();
+
+    private static final AuthorizationRule PERMIT_ALL = new AuthorizationRule(Kind.PERMIT_ALL, 0);
+    private static final AuthorizationRule DENY_ALL = new AuthorizationRule(Kind.DENY_ALL, 0);
+    private static final AuthorizationRule AUTHENTICATED = new AuthorizationRule(Kind.AUTHENTICATED, 0);
+
+    private final Kind kind;
+    private final int roleMask;
+
+    private AuthorizationRule(Kind kind, int roleMask) {
+        this.kind = kind;
+        this.roleMask = roleMask;
+    }
+
+    public static AuthorizationRule permitAll() {
+        return PERMIT_ALL;
+    }
+
+    public static AuthorizationRule denyAll() {
+        return DENY_ALL;
+    }
+
+    public static AuthorizationRule authenticated() {
+        return AUTHENTICATED;
+    }
+
+    public static AuthorizationRule anyRole(ERole... roles) {
+        int mask = 0;
+        for (ERole role : roles) {
+            mask |= RoleAuthorities.bit(role);
+        }
+        return anyRoleOf(mask);
+    }
+
+    static AuthorizationRule anyRoleOf(int roleMask) {
+        return roleMask == 0 ? DENY_ALL : new AuthorizationRule(Kind.ANY_ROLE, roleMask);
+    }
+
+    /**
+     * The rule granting access when either rule does.
+     */
+    public AuthorizationRule or(AuthorizationRule other) {
+        if (kind == Kind.PERMIT_ALL || other.kind == Kind.DENY_ALL) {
+            return this;
+        }
+        if (other.kind == Kind.PERMIT_ALL || kind == Kind.DENY_ALL) {
+            return other;
+        }
+        if (kind == Kind.AUTHENTICATED || other.kind == Kind.AUTHENTICATED) {
+            return AUTHENTICATED;
+        }
+        return anyRoleOf(roleMask | other.roleMask);
+    }
+
+    public AuthorizationDecision decide(Supplier<Authentication> authentication) {
+        return isGranted(authentication) ? GRANTED : DENIED;
+    }
+
+    public boolean isGranted(Supplier<Authentication> authentication) {
+        return switch (kind) {
+            case PERMIT_ALL -> true;
+            case DENY_ALL -> false;
+            case AUTHENTICATED -> isAuthenticated(authentication.get());
+            case ANY_ROLE -> {
+                Authentication current = authentication.get();
+                yield isAuthenticated(current) && (roleMask(current) & roleMask) != 0;
+            }
+        };
+    }
+
+    private static boolean isAuthenticated(Authentication authentication) {
+        return authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken);
+    }
+
+    private static int roleMask(Authentication authentication) {
+        if (authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return principal.getRoleMask();
+        }
+        int mask = 0;
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            for (ERole role : ROLES) {
+                if (role.name().equals(authority.getAuthority())) {
+                    mask |= RoleAuthorities.bit(role);
+                }
+            }
+        }
+        return mask;
+    }
+
+    @Override
+    public String toString() {
+        return kind == Kind.ANY_ROLE ? "anyRole(" + RoleAuthorities.authorities(roleMask) + ")" : kind.name();
+    }
+}
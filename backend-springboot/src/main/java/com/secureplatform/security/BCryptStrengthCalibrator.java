@@ -0,0 +1,61 @@
+package com.secureplatform.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.Arrays;
+
+/**
+ * BCrypt Strength Calibrator
+ * Picks the highest BCrypt strength whose hashing time stays within a target latency
+ * on the current hardware
+ *
+ * Each strength step doubles the work, so a few samples at a cheap reference strength
+ * are enough to extrapolate; the chosen strength is then measured once to confirm it.
+ */
+public final class BCryptStrengthCalibrator {
+
+    private static final Logger logger = LoggerFactory.getLogger(BCryptStrengthCalibrator.class);
+
+    private static final int REFERENCE_STRENGTH = 8;
+    private static final int SAMPLES = 5;
+    private static final String SAMPLE_PASSWORD = "calibration-Password-123!";
+
+    private BCryptStrengthCalibrator() {}
+
+    public static int calibrate(long targetLatencyInMs, int minStrength, int maxStrength) {
+        double referenceMs = medianEncodeMillis(REFERENCE_STRENGTH);
+
+        int strength = minStrength;
+        while (strength < maxStrength
+                && referenceMs * Math.pow(2, strength + 1 - REFERENCE_STRENGTH) <= targetLatencyInMs) {
+            strength++;
+        }
+
+        // Extrapolation can overshoot on noisy hardware; step down once if the real cost is too high
+        double measuredMs = medianEncodeMillis(strength);
+        if (measuredMs > targetLatencyInMs && strength > minStrength) {
+            strength--;
+            measuredMs = measuredMs / 2;
+        }
+
+        logger.info("BCrypt calibrated to strength {} (~{} ms, target {} ms)",
+                strength, Math.round(measuredMs), targetLatencyInMs);
+        return strength;
+    }
+
+    private static double medianEncodeMillis(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        encoder.encode(SAMPLE_PASSWORD); // warm-up
+
+        double[] samples = new double[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            samples[i] = (System.nanoTime() - start) / 1_000_000.0;
+        }
+        Arrays.sort(samples);
+        return samples[SAMPLES / 2];
+    }
+}
@@ -0,0 +1,122 @@
+package com.secureplatform.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded Password Encoder
+ * Runs password hashing and verification on a dedicated, core-sized thread pool with a
+ * bounded queue, so a login flood is rejected quickly instead of tying up every
+ * request thread on CPU-bound hashing
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, AutoCloseable {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutInMs;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejected;
+    private final boolean ownsExecutor;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity,
+                                  long timeoutInMs, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.timeoutInMs = timeoutInMs;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.encodeTimer = Timer.builder("password.hash").tag("operation", "encode").register(meterRegistry);
+        this.matchesTimer = Timer.builder("password.hash").tag("operation", "matches").register(meterRegistry);
+        this.rejected = Counter.builder("password.hash.rejected").register(meterRegistry);
+        Gauge.builder("password.hash.queue.depth", executor, pool -> pool.getQueue().size()).register(meterRegistry);
+        Gauge.builder("password.hash.active", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+        this.ownsExecutor = true;
+    }
+
+    private BoundedPasswordEncoder(PasswordEncoder delegate, BoundedPasswordEncoder source) {
+        this.delegate = delegate;
+        this.executor = source.executor;
+        this.timeoutInMs = source.timeoutInMs;
+        this.encodeTimer = source.encodeTimer;
+        this.matchesTimer = source.matchesTimer;
+        this.rejected = source.rejected;
+        this.ownsExecutor = false;
+    }
+
+    /**
+     * Returns an encoder for another delegate that runs on this encoder's pool and limits.
+     */
+    public BoundedPasswordEncoder sharing(PasswordEncoder otherDelegate) {
+        return new BoundedPasswordEncoder(otherDelegate, this);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit(() -> encodeTimer.record(() -> delegate.encode(rawPassword)));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> matchesTimer.record(() -> delegate.matches(rawPassword, encodedPassword)));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    @Override
+    public void close() {
+        if (ownsExecutor) {
+            executor.shutdown();
+        }
+    }
+
+    private <T> T submit(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException ex) {
+            rejected.increment();
+            throw new PasswordHashingUnavailableException("Password hashing capacity exhausted", ex);
+        }
+
+        try {
+            return future.get(timeoutInMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            future.cancel(true);
+            rejected.increment();
+            throw new PasswordHashingUnavailableException("Password hashing timed out", ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new PasswordHashingUnavailableException("Password hashing interrupted", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+}
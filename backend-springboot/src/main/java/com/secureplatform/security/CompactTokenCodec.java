@@ -0,0 +1,479 @@
+package com.secureplatform.security;
+
+import com.secureplatform.model.ERole;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Compact Token Codec
+ * Signed binary encoding of access token claims, an optional alternative to the JWT format
+ *
+ * A compact token is "ct." followed by the base64url (unpadded) form of
+ * <pre>
+ *   version (1 byte, 0x01) | algorithm (1 byte) | fields ... | signature (64 bytes)
+ * </pre>
+ * where each field is a one-byte code and its value: kid (length-prefixed thumbprint bytes),
+ * jti (16 bytes), sub, iat and exp (seconds), the milliseconds of iat within its second, role
+ * bitmask (bit per {@link ERole} ordinal) and ver as unsigned LEB128 varints, username and email
+ * as length-prefixed UTF-8. The signature covers everything before it and is HS512, ES256 (R||S)
+ * or Ed25519, with the same keys and kid as JWTs, so a token is about half the size of the
+ * equivalent JWT.
+ *
+ * The decoder reads the base64 characters at an offset of the given CharSequence into a pooled
+ * buffer, verifies the signature over that buffer, and reads the fields from it; only the values
+ * handed out in {@link JwtClaims} are allocated. Buffers and keyed Macs are pooled rather than
+ * held per thread, since on virtual threads each request runs on a thread of its own. Services
+ * that verify tokens through the JWKS only understand JWTs, so compact tokens are meant for this
+ * backend's clients.
+ */
+final class CompactTokenCodec {
+
+    static final String PREFIX = "ct.";
+
+    static final byte VERSION = 1;
+
+    private static final byte ALG_HS512 = 0;
+    private static final byte ALG_ES256 = 1;
+    private static final byte ALG_EDDSA = 2;
+
+    private static final byte FIELD_KID = 1;
+    private static final byte FIELD_JTI = 2;
+    private static final byte FIELD_SUB = 3;
+    private static final byte FIELD_IAT = 4;
+    private static final byte FIELD_EXP = 5;
+    private static final byte FIELD_ROLES = 6;
+    private static final byte FIELD_USERNAME = 7;
+    private static final byte FIELD_EMAIL = 8;
+    private static final byte FIELD_VERSION = 9;
+    private static final byte FIELD_IAT_MILLIS = 10;
+
+    private static final int SIGNATURE_BYTES = 64;
+    private static final int MAX_TOKEN_BYTES = 1024;
+    private static final int MAX_POOLED_SCRATCHES = 4 * Runtime.getRuntime().availableProcessors();
+
+    private static final int[] BASE64URL = new int[128];
+
+    private static final ERole[] ROLES = ERole.values();
+
+    // Role name lists per bitmask, shared by every decoded token
+    @SuppressWarnings("unchecked")
+    private static final List<String>[] ROLE_NAMES = (List<String>[]) new List<?>[1 << ROLES.length];
+
+    static {
+        Arrays.fill(BASE64URL, -1);
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        for (int i = 0; i < alphabet.length(); i++) {
+            BASE64URL[alphabet.charAt(i)] = i;
+        }
+        for (int mask = 0; mask < ROLE_NAMES.length; mask++) {
+            ROLE_NAMES[mask] = RoleAuthorities.authorities(mask).stream()
+                    .map(authority -> authority.getAuthority())
+                    .toList();
+        }
+    }
+
+    private final SecretKey hmacKey;
+    private final Predicate<JwtClaims> hmacTokenFilter;
+    private final Function<String, PublicKey> publicKeys;
+
+    // Free scratches; at most MAX_POOLED_SCRATCHES are kept, more are created under bursts and dropped
+    private final Queue<Scratch> scratches = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooledScratches = new AtomicInteger();
+
+    /**
+     * @param hmacKey         secret for HS512 tokens, or null if they are not accepted
+     * @param hmacTokenFilter which correctly signed HS512 tokens are accepted
+     * @param publicKeys      verification key by kid, null for an unknown kid
+     */
+    CompactTokenCodec(SecretKey hmacKey, Predicate<JwtClaims> hmacTokenFilter,
+                      Function<String, PublicKey> publicKeys) {
+        this.hmacKey = hmacKey;
+        this.hmacTokenFilter = hmacTokenFilter;
+        this.publicKeys = publicKeys;
+    }
+
+    /**
+     * Encodes and signs the claims; a null signing key signs with the HMAC secret.
+     */
+    String encode(JwtClaims claims, JwtKeyRing.SigningKey signingKey) throws GeneralSecurityException {
+        Writer out = new Writer();
+        out.writeByte(VERSION);
+        if (signingKey == null) {
+            out.writeByte(ALG_HS512);
+        } else {
+            out.writeByte(algorithmCode(signingKey.algorithm().getId()));
+            byte[] kid = Base64.getUrlDecoder().decode(signingKey.kid());
+            out.writeByte(FIELD_KID);
+            out.writeVarint(kid.length);
+            out.writeBytes(kid);
+        }
+
+        UUID jti = UUID.fromString(claims.getTokenId());
+        out.writeByte(FIELD_JTI);
+        out.writeLong(jti.getMostSignificantBits());
+        out.writeLong(jti.getLeastSignificantBits());
+        out.writeField(FIELD_SUB, claims.getUserId());
+        out.writeField(FIELD_IAT, claims.getIssuedAt().getTime() / 1000);
+        out.writeField(FIELD_IAT_MILLIS, claims.getIssuedAt().getTime() % 1000);
+        out.writeField(FIELD_EXP, claims.getExpiration().getTime() / 1000);
+        if (!claims.getRoles().isEmpty()) {
+            out.writeField(FIELD_ROLES, RoleAuthorities.mask(RoleAuthorities.roles(claims.getRoles())));
+        }
+        if (claims.getUsername() != null) {
+            out.writeString(FIELD_USERNAME, claims.getUsername());
+        }
+        if (claims.getEmail() != null) {
+            out.writeString(FIELD_EMAIL, claims.getEmail());
+        }
+        if (claims.getTokenVersion() != null) {
+            out.writeField(FIELD_VERSION, claims.getTokenVersion());
+        }
+
+        int length = out.length;
+        if (length + SIGNATURE_BYTES > MAX_TOKEN_BYTES) {
+            throw new IllegalArgumentException("Claims too large for a compact token");
+        }
+        out.ensure(SIGNATURE_BYTES);
+        if (signingKey == null) {
+            if (hmacKey == null) {
+                throw new IllegalStateException("No HS512 secret to sign compact tokens with");
+            }
+            Scratch scratch = acquire();
+            try {
+                Mac mac = scratch.mac();
+                mac.update(out.bytes, 0, length);
+                mac.doFinal(out.bytes, length);
+            } finally {
+                release(scratch);
+            }
+        } else {
+            Signature signature = Signature.getInstance(signatureName(out.bytes[1]));
+            signature.initSign(signingKey.privateKey());
+            signature.update(out.bytes, 0, length);
+            System.arraycopy(signature.sign(), 0, out.bytes, length, SIGNATURE_BYTES);
+        }
+        return PREFIX + Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Arrays.copyOf(out.bytes, length + SIGNATURE_BYTES));
+    }
+
+    /**
+     * Decodes the token that starts at {@code start} in {@code source} (after the prefix) and
+     * runs to its end, verifying signature and expiry.
+     *
+     * @throws IllegalArgumentException if the token is malformed, forged or expired
+     */
+    JwtClaims decode(CharSequence source, int start, long nowMs) throws GeneralSecurityException {
+        Scratch scratch = acquire();
+        try {
+            return decode(source, start, nowMs, scratch);
+        } finally {
+            release(scratch);
+        }
+    }
+
+    private JwtClaims decode(CharSequence source, int start, long nowMs, Scratch scratch)
+            throws GeneralSecurityException {
+        byte[] buf = scratch.buffer;
+        int total = decodeBase64(source, start, buf);
+        int end = total - SIGNATURE_BYTES;
+        if (end < 2 || buf[0] != VERSION) {
+            throw new IllegalArgumentException("Unsupported compact token version");
+        }
+        byte algorithm = buf[1];
+
+        String kid = null;
+        long msb = 0, lsb = 0;
+        boolean hasJti = false;
+        long userId = -1, issuedAt = -1, expiration = -1;
+        long issuedAtMillis = 0;
+        int roleMask = 0;
+        int usernameAt = -1, usernameLength = 0, emailAt = -1, emailLength = 0;
+        Integer tokenVersion = null;
+
+        // Lengths and varints are bounds-checked against end before anything is trusted
+        Reader in = new Reader(buf, 2, end);
+        while (in.pos < end) {
+            switch (in.readByte()) {
+                case FIELD_KID -> {
+                    int length = in.readLength();
+                    kid = Base64.getUrlEncoder().withoutPadding()
+                            .encodeToString(Arrays.copyOfRange(buf, in.pos, in.pos + length));
+                    in.pos += length;
+                }
+                case FIELD_JTI -> {
+                    msb = in.readLong();
+                    lsb = in.readLong();
+                    hasJti = true;
+                }
+                case FIELD_SUB -> userId = in.readVarint();
+                case FIELD_IAT -> issuedAt = in.readVarint();
+                case FIELD_IAT_MILLIS -> issuedAtMillis = in.readVarint();
+                case FIELD_EXP -> expiration = in.readVarint();
+                case FIELD_ROLES -> roleMask = (int) in.readVarint();
+                case FIELD_USERNAME -> {
+                    usernameLength = in.readLength();
+                    usernameAt = in.pos;
+                    in.pos += usernameLength;
+                }
+                case FIELD_EMAIL -> {
+                    emailLength = in.readLength();
+                    emailAt = in.pos;
+                    in.pos += emailLength;
+                }
+                case FIELD_VERSION -> tokenVersion = (int) in.readVarint();
+                default -> throw new IllegalArgumentException("Unknown compact token field");
+            }
+        }
+
+        verify(algorithm, kid, scratch, end);
+
+        if (!hasJti || userId < 0 || issuedAt < 0 || expiration < 0) {
+            throw new IllegalArgumentException("Compact token is missing required claims");
+        }
+        if (issuedAtMillis < 0 || issuedAtMillis > 999) {
+            throw new IllegalArgumentException("Compact token has a malformed issue time");
+        }
+        if (roleMask < 0 || roleMask >= ROLE_NAMES.length) {
+            throw new IllegalArgumentException("Compact token has unknown roles");
+        }
+        if (expiration * 1000 <= nowMs) {
+            throw new IllegalArgumentException("Compact token is expired");
+        }
+
+        JwtClaims claims = new JwtClaims(
+                new UUID(msb, lsb).toString(),
+                userId,
+                new Date(issuedAt * 1000 + issuedAtMillis),
+                new Date(expiration * 1000),
+                ROLE_NAMES[roleMask],
+                usernameAt < 0 ? null : new String(buf, usernameAt, usernameLength, StandardCharsets.UTF_8),
+                emailAt < 0 ? null : new String(buf, emailAt, emailLength, StandardCharsets.UTF_8),
+                tokenVersion
+        );
+        if (algorithm == ALG_HS512 && !hmacTokenFilter.test(claims)) {
+            throw new IllegalArgumentException("HS512 compact tokens are no longer accepted");
+        }
+        return claims;
+    }
+
+    private void verify(byte algorithm, String kid, Scratch scratch, int end) throws GeneralSecurityException {
+        byte[] buf = scratch.buffer;
+        if (algorithm == ALG_HS512) {
+            if (kid != null || hmacKey == null) {
+                throw new IllegalArgumentException("HS512 compact tokens are not accepted");
+            }
+            Mac mac = scratch.mac();
+            mac.update(buf, 0, end);
+            // The expected signature goes past the token in the buffer and is compared in place
+            int expectedAt = end + SIGNATURE_BYTES;
+            mac.doFinal(buf, expectedAt);
+            int diff = 0;
+            for (int i = 0; i < SIGNATURE_BYTES; i++) {
+                diff |= buf[end + i] ^ buf[expectedAt + i];
+            }
+            if (diff != 0) {
+                throw new IllegalArgumentException("Compact token signature does not match");
+            }
+            return;
+        }
+
+        PublicKey key = kid == null ? null : publicKeys.apply(kid);
+        if (key == null) {
+            throw new IllegalArgumentException("Compact token signed with an unknown key");
+        }
+        Signature signature = Signature.getInstance(signatureName(algorithm));
+        signature.initVerify(key);
+        signature.update(buf, 0, end);
+        if (!signature.verify(buf, end, SIGNATURE_BYTES)) {
+            throw new IllegalArgumentException("Compact token signature does not match");
+        }
+    }
+
+    private Scratch acquire() {
+        Scratch scratch = scratches.poll();
+        if (scratch == null) {
+            return new Scratch();
+        }
+        pooledScratches.decrementAndGet();
+        return scratch;
+    }
+
+    private void release(Scratch scratch) {
+        if (pooledScratches.incrementAndGet() <= MAX_POOLED_SCRATCHES) {
+            scratches.offer(scratch);
+        } else {
+            pooledScratches.decrementAndGet();
+        }
+    }
+
+    /**
+     * Decode buffer and HMAC of one in-flight encode or decode.
+     */
+    private final class Scratch {
+        final byte[] buffer = new byte[MAX_TOKEN_BYTES + SIGNATURE_BYTES];
+        private Mac mac;
+
+        // Keyed on first use; a Mac resets after doFinal, so it is reused as is
+        Mac mac() throws GeneralSecurityException {
+            if (mac == null) {
+                mac = Mac.getInstance("HmacSHA512");
+                mac.init(hmacKey);
+            }
+            return mac;
+        }
+    }
+
+    private static byte algorithmCode(String jwsAlgorithm) {
+        return switch (jwsAlgorithm) {
+            case "ES256" -> ALG_ES256;
+            case "EdDSA" -> ALG_EDDSA;
+            default -> throw new IllegalArgumentException("No compact encoding for " + jwsAlgorithm);
+        };
+    }
+
+    private static String signatureName(byte algorithm) {
+        return switch (algorithm) {
+            case ALG_ES256 -> "SHA256withECDSAinP1363Format";
+            case ALG_EDDSA -> "Ed25519";
+            default -> throw new IllegalArgumentException("Unknown compact token algorithm");
+        };
+    }
+
+    /**
+     * Decodes unpadded base64url characters from start to the end of source into buf.
+     *
+     * @return the number of bytes written
+     */
+    private static int decodeBase64(CharSequence source, int start, byte[] buf) {
+        int chars = source.length() - start;
+        if (chars % 4 == 1 || chars * 3 / 4 > MAX_TOKEN_BYTES) {
+            throw new IllegalArgumentException("Malformed compact token");
+        }
+        int out = 0;
+        int bits = 0;
+        int accumulator = 0;
+        for (int i = start; i < source.length(); i++) {
+            char c = source.charAt(i);
+            int value = c < 128 ? BASE64URL[c] : -1;
+            if (value < 0) {
+                throw new IllegalArgumentException("Malformed compact token");
+            }
+            accumulator = (accumulator << 6) | value;
+            bits += 6;
+            if (bits >= 8) {
+                bits -= 8;
+                buf[out++] = (byte) (accumulator >> bits);
+            }
+        }
+        return out;
+    }
+
+    private static final class Writer {
+        byte[] bytes = new byte[256];
+        int length;
+
+        void ensure(int extra) {
+            if (length + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + extra));
+            }
+        }
+
+        void writeByte(int value) {
+            ensure(1);
+            bytes[length++] = (byte) value;
+        }
+
+        void writeBytes(byte[] value) {
+            ensure(value.length);
+            System.arraycopy(value, 0, bytes, length, value.length);
+            length += value.length;
+        }
+
+        void writeLong(long value) {
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                writeByte((int) (value >>> shift));
+            }
+        }
+
+        void writeVarint(long value) {
+            while ((value & ~0x7FL) != 0) {
+                writeByte((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            writeByte((int) value);
+        }
+
+        void writeField(byte code, long value) {
+            writeByte(code);
+            writeVarint(value);
+        }
+
+        void writeString(byte code, String value) {
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            writeField(code, utf8.length);
+            writeBytes(utf8);
+        }
+    }
+
+    private static final class Reader {
+        final byte[] bytes;
+        final int end;
+        int pos;
+
+        Reader(byte[] bytes, int pos, int end) {
+            this.bytes = bytes;
+            this.pos = pos;
+            this.end = end;
+        }
+
+        byte readByte() {
+            if (pos >= end) {
+                throw new IllegalArgumentException("Truncated compact token");
+            }
+            return bytes[pos++];
+        }
+
+        long readLong() {
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value = (value << 8) | (readByte() & 0xFF);
+            }
+            return value;
+        }
+
+        long readVarint() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed compact token varint");
+        }
+
+        int readLength() {
+            long length = readVarint();
+            if (length < 0 || length > end - pos) {
+                throw new IllegalArgumentException("Truncated compact token");
+            }
+            return (int) length;
+        }
+    }
+}
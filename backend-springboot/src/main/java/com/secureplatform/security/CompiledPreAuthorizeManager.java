@@ -0,0 +1,144 @@
+package com.secureplatform.security;
+
+import com.secureplatform.model.ERole;
+import org.aopalliance.intercept.MethodInvocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.method.PreAuthorizeAuthorizationManager;
+import org.springframework.security.core.Authentication;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compiled PreAuthorize Manager
+ * Evaluates {@link PreAuthorize} rules without the expression engine where they allow it
+ *
+ * Each method's expression is compiled once into an {@link AuthorizationRule} when the
+ * method is first invoked. Expressions made of hasRole, hasAnyRole, hasAuthority,
+ * hasAnyAuthority, isAuthenticated, permitAll and denyAll joined by {@code or} compile to a
+ * bitmask check; anything else (and, not, bean references, method arguments) keeps being
+ * evaluated as SpEL by the standard manager.
+ */
+public class CompiledPreAuthorizeManager implements AuthorizationManager<MethodInvocation> {
+
+    private static final Logger logger = LoggerFactory.getLogger(CompiledPreAuthorizeManager.class);
+
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    private static final Pattern OR = Pattern.compile("\\s+or\\s+");
+    private static final Pattern TERM = Pattern.compile(
+            "(hasRole|hasAnyRole|hasAuthority|hasAnyAuthority)\\(\\s*(.*?)\\s*\\)|(isAuthenticated\\(\\)|permitAll(?:\\(\\))?|denyAll(?:\\(\\))?)");
+    private static final Pattern ARGUMENT = Pattern.compile("'([A-Za-z_]+)'\\s*(?:,\\s*|$)");
+
+    // Abstains for methods without @PreAuthorize
+    private static final AuthorizationManager<MethodInvocation> NO_RULE = (authentication, invocation) -> null;
+
+    private final PreAuthorizeAuthorizationManager fallback;
+
+    private final Map<Method, AuthorizationManager<MethodInvocation>> managers = new ConcurrentHashMap<>();
+
+    public CompiledPreAuthorizeManager(PreAuthorizeAuthorizationManager fallback) {
+        this.fallback = fallback;
+    }
+
+    @Override
+    public AuthorizationDecision check(Supplier<Authentication> authentication, MethodInvocation invocation) {
+        // get() first: the capturing lambda of computeIfAbsent would allocate on every call
+        AuthorizationManager<MethodInvocation> manager = managers.get(invocation.getMethod());
+        if (manager == null) {
+            manager = managers.computeIfAbsent(invocation.getMethod(), method -> compile(method, invocation));
+        }
+        return manager.check(authentication, invocation);
+    }
+
+    private AuthorizationManager<MethodInvocation> compile(Method method, MethodInvocation invocation) {
+        Class<?> targetClass = invocation.getThis() != null
+                ? AopUtils.getTargetClass(invocation.getThis())
+                : method.getDeclaringClass();
+        Method specificMethod = AopUtils.getMostSpecificMethod(method, targetClass);
+        PreAuthorize annotation = AnnotatedElementUtils.findMergedAnnotation(specificMethod, PreAuthorize.class);
+        if (annotation == null) {
+            annotation = AnnotatedElementUtils.findMergedAnnotation(targetClass, PreAuthorize.class);
+        }
+        if (annotation == null) {
+            return NO_RULE;
+        }
+
+        AuthorizationRule rule = compile(annotation.value());
+        if (rule == null) {
+            logger.debug("@PreAuthorize(\"{}\") on {} is evaluated as SpEL", annotation.value(), method);
+            return fallback;
+        }
+        logger.debug("@PreAuthorize(\"{}\") on {} compiled to {}", annotation.value(), method, rule);
+        return (currentAuthentication, currentInvocation) -> rule.decide(currentAuthentication);
+    }
+
+    /**
+     * Compiles an expression, or returns null when it needs the expression engine.
+     */
+    static AuthorizationRule compile(String expression) {
+        AuthorizationRule rule = AuthorizationRule.denyAll();
+        for (String term : OR.split(expression.trim())) {
+            AuthorizationRule termRule = compileTerm(term.trim());
+            if (termRule == null) {
+                return null;
+            }
+            rule = rule.or(termRule);
+        }
+        return rule;
+    }
+
+    private static AuthorizationRule compileTerm(String term) {
+        Matcher matcher = TERM.matcher(term);
+        if (!matcher.matches()) {
+            return null;
+        }
+        if (matcher.group(3) != null) {
+            if (term.startsWith("isAuthenticated")) {
+                return AuthorizationRule.authenticated();
+            }
+            return term.startsWith("permitAll") ? AuthorizationRule.permitAll() : AuthorizationRule.denyAll();
+        }
+
+        boolean addPrefix = matcher.group(1).endsWith("Role");
+        boolean single = !matcher.group(1).startsWith("hasAny");
+        Matcher arguments = ARGUMENT.matcher(matcher.group(2));
+        int mask = 0;
+        int count = 0;
+        int end = 0;
+        while (arguments.find() && arguments.start() == end) {
+            String authority = addPrefix ? ROLE_PREFIX + arguments.group(1) : arguments.group(1);
+            ERole role = roleNamed(authority);
+            if (role == null) {
+                // An authority outside ERole is never granted by this application, but leave it to SpEL
+                return null;
+            }
+            mask |= RoleAuthorities.bit(role);
+            count++;
+            end = arguments.end();
+        }
+        if (count == 0 || end != matcher.group(2).length() || (single && count != 1)) {
+            return null;
+        }
+        return AuthorizationRule.anyRoleOf(mask);
+    }
+
+    private static ERole roleNamed(String authority) {
+        for (ERole role : ERole.values()) {
+            if (role.name().equals(authority)) {
+                return role;
+            }
+        }
+        return null;
+    }
+}
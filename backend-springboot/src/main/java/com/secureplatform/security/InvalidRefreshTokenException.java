@@ -0,0 +1,12 @@
+package com.secureplatform.security;
+
+/**
+ * Invalid Refresh Token Exception
+ * Thrown when a refresh token is unknown, expired, or was already used
+ */
+public class InvalidRefreshTokenException extends RuntimeException {
+
+    public InvalidRefreshTokenException(String message) {
+        super(message);
+    }
+}
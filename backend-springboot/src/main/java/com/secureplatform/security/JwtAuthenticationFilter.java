@@ -1,5 +1,7 @@
 package com.secureplatform.security;
 
+import com.secureplatform.revocation.TokenRevocationList;
+import com.secureplatform.service.CustomUserDetailsService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -9,9 +11,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
@@ -21,6 +22,7 @@ import java.io.IOException;
  * JWT Authentication Filter
  * Intercepts requests to validate JWT tokens and set authentication
  */
+@Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
@@ -29,7 +31,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private JwtTokenProvider tokenProvider;
 
     @Autowired
-    private UserDetailsService userDetailsService;
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private UserTokenVersionRegistry tokenVersionRegistry;
+
+    @Autowired
+    private TokenRevocationList revocationList;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
@@ -37,15 +48,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                Long userId = tokenProvider.getUserIdFromToken(jwt);
+            if (StringUtils.hasText(jwt)) {
+                UserPrincipal userDetails = resolvePrincipal(jwt);
 
-                UserDetails userDetails = userDetailsService.loadUserById(userId);
-                UsernamePasswordAuthenticationToken authentication = 
-                    new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                if (userDetails != null) {
+                    UsernamePasswordAuthenticationToken authentication =
+                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                }
             }
         } catch (Exception ex) {
             logger.error("Cannot set user authentication: {}", ex.getMessage());
@@ -54,6 +66,59 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private UserPrincipal resolvePrincipal(String jwt) {
+        VerifiedTokenCache.VerifiedToken cached = verifiedTokenCache.get(jwt);
+        if (cached != null) {
+            JwtClaims claims = cached.claims();
+            if (revocationList.isRevoked(claims)) {
+                return null;
+            }
+            if (isClaimsPrincipal(claims) && !isCurrentVersion(claims)) {
+                verifiedTokenCache.evict(jwt);
+                return null;
+            }
+            return cached.principal();
+        }
+
+        JwtClaims claims = tokenProvider.parseToken(jwt);
+        if (claims == null) {
+            return null;
+        }
+        if (revocationList.isRevoked(claims)) {
+            logger.warn("Rejected revoked token for user {}", claims.getUserId());
+            return null;
+        }
+
+        UserPrincipal principal = loadPrincipal(claims);
+        if (principal != null) {
+            verifiedTokenCache.put(jwt, claims, principal);
+        }
+        return principal;
+    }
+
+    private UserPrincipal loadPrincipal(JwtClaims claims) {
+        if (isClaimsPrincipal(claims)) {
+            return isCurrentVersion(claims) ? UserPrincipal.fromClaims(claims) : null;
+        }
+        return userDetailsService.loadUserById(claims.getUserId());
+    }
+
+    private boolean isClaimsPrincipal(JwtClaims claims) {
+        return tokenProvider.isClaimsPrincipalEnabled() && claims.hasPrincipalClaims();
+    }
+
+    /**
+     * A principal built from claims is only trusted while its token version is current,
+     * which has to hold on every request, not just the one that filled the cache
+     */
+    private boolean isCurrentVersion(JwtClaims claims) {
+        if (tokenVersionRegistry.isCurrent(claims.getUserId(), claims.getTokenVersion())) {
+            return true;
+        }
+        logger.warn("Rejected outdated token for user {}", claims.getUserId());
+        return false;
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
@@ -0,0 +1,61 @@
+package com.secureplatform.security;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Parsed JWT Claims
+ * Immutable result of a single signature-verified parse of an access token
+ */
+public final class JwtClaims {
+
+    private final String tokenId;
+    private final Long userId;
+    private final Date issuedAt;
+    private final Date expiration;
+    private final List<String> roles;
+
+    // Present only on tokens issued in claims-principal mode
+    private final String username;
+    private final String email;
+    private final Integer tokenVersion;
+
+    public JwtClaims(Long userId, Date issuedAt, Date expiration, List<String> roles) {
+        this(null, userId, issuedAt, expiration, roles, null, null, null);
+    }
+
+    public JwtClaims(String tokenId, Long userId, Date issuedAt, Date expiration, List<String> roles,
+                     String username, String email, Integer tokenVersion) {
+        this.tokenId = tokenId;
+        this.userId = userId;
+        this.issuedAt = issuedAt;
+        this.expiration = expiration;
+        this.roles = roles != null ? List.copyOf(roles) : List.of();
+        this.username = username;
+        this.email = email;
+        this.tokenVersion = tokenVersion;
+    }
+
+    /**
+     * The jti claim; null on tokens issued before revocation support.
+     */
+    public String getTokenId() { return tokenId; }
+    public Long getUserId() { return userId; }
+    public Date getIssuedAt() { return issuedAt; }
+    public Date getExpiration() { return expiration; }
+    public List<String> getRoles() { return roles; }
+    public String getUsername() { return username; }
+    public String getEmail() { return email; }
+    public Integer getTokenVersion() { return tokenVersion; }
+
+    public boolean isExpired() {
+        return expiration != null && expiration.before(new Date());
+    }
+
+    /**
+     * Whether the token carries enough claims to build a principal without a database lookup.
+     */
+    public boolean hasPrincipalClaims() {
+        return username != null && tokenVersion != null;
+    }
+}
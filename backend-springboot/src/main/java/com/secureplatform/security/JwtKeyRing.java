@@ -0,0 +1,397 @@
+package com.secureplatform.security;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Jwk;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.SignatureAlgorithm;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.SecureRandom;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JWT Key Ring
+ * Asymmetric keys that sign access tokens, shared by all replicas through the jwt_signing_keys
+ * table and published as a JWKS so other services verify tokens without the shared secret
+ *
+ * The newest active key of app.jwt.signing.algorithm (ES256 or EdDSA) signs; every unexpired key
+ * is published and accepted, indexed by kid. Every app.jwt.keys.rotation-interval a replacement
+ * is added publish-ahead before it starts signing, so a verifier caching the JWKS for less than
+ * that already knows the key when its first token arrives. The retired key stays in the JWKS
+ * until the last token it signed has expired. Replicas reload the table every
+ * app.jwt.keys.refresh-interval, and at once when they meet an unknown kid.
+ *
+ * Replicas serialize rotation on a row lock, so a due rotation adds one key however many
+ * replicas notice it at once.
+ *
+ * Private keys are stored wrapped with a key derived from app.jwt.secret, so the table alone
+ * does not allow forging tokens; a key that no longer unwraps (the secret changed) is
+ * replaced. With app.jwt.signing.algorithm=HS512 the ring is disabled and tokens are signed
+ * with the shared secret, as before.
+ */
+@Component
+@DependsOnDatabaseInitialization
+public class JwtKeyRing {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtKeyRing.class);
+
+    private static final String SELECT_SQL =
+            "SELECT kid, algorithm, public_key, private_key, created_at, activates_at FROM jwt_signing_keys " +
+            "WHERE expires_at IS NULL OR expires_at > ? ORDER BY activates_at";
+    private static final String INSERT_SQL =
+            "INSERT INTO jwt_signing_keys (kid, algorithm, public_key, private_key, created_at, activates_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String RETIRE_SQL =
+            "UPDATE jwt_signing_keys SET expires_at = ? WHERE expires_at IS NULL AND kid <> ?";
+    private static final String PURGE_SQL =
+            "DELETE FROM jwt_signing_keys WHERE expires_at <= ?";
+    // Held until the rotating transaction ends, so one replica at a time decides and inserts
+    private static final String LOCK_SQL =
+            "SELECT id FROM jwt_signing_key_lock WHERE id = 1 FOR UPDATE";
+
+    private static final int GCM_IV_BYTES = 12;
+    private static final int GCM_TAG_BITS = 128;
+    private static final long RELOAD_ON_MISS_INTERVAL_MS = 1000;
+
+    @Value("${app.jwt.signing.algorithm:ES256}")
+    private String algorithm;
+
+    @Value("${app.jwt.keys.rotation-interval:604800000}")
+    private long rotationIntervalInMs;
+
+    @Value("${app.jwt.keys.publish-ahead:3600000}")
+    private long publishAheadInMs;
+
+    @Value("${app.jwt.expiration}")
+    private long tokenLifetimeInMs;
+
+    @Value("${app.jwt.secret}")
+    private String jwtSecret;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final SecureRandom random = new SecureRandom();
+
+    private SecretKeySpec wrappingKey;
+
+    private volatile Keys keys = Keys.EMPTY;
+
+    private volatile long lastReloadOnMiss;
+
+    /**
+     * The key that signs new tokens, named by the kid header it puts on them.
+     */
+    public record SigningKey(String kid, PrivateKey privateKey, SignatureAlgorithm algorithm) {
+    }
+
+    /**
+     * Current signing key, verification keys by kid, the JWKS document built from them, and the
+     * creation time of the oldest key.
+     */
+    private record Keys(SigningKey signing, Map<String, PublicKey> verification, byte[] jwks, String etag,
+                        long oldestCreatedAtMs) {
+        static final Keys EMPTY = new Keys(null, Map.of(), "{\"keys\":[]}".getBytes(StandardCharsets.UTF_8), "\"empty\"",
+                Long.MIN_VALUE);
+    }
+
+    private record StoredKey(String kid, String algorithm, PublicKey publicKey, String wrappedPrivateKey,
+                             LocalDateTime createdAt, LocalDateTime activatesAt) {
+    }
+
+    @PostConstruct
+    void init() throws GeneralSecurityException {
+        if (!isEnabled()) {
+            logger.info("JWT key ring disabled, access tokens are signed with the shared HS512 secret");
+            return;
+        }
+        signatureAlgorithm(algorithm);
+        byte[] digest = MessageDigest.getInstance("SHA-256")
+                .digest(("jwt-signing-keys:" + jwtSecret).getBytes(StandardCharsets.UTF_8));
+        this.wrappingKey = new SecretKeySpec(digest, "AES");
+        refresh();
+        if (keys.signing() == null) {
+            throw new IllegalStateException("No usable " + algorithm + " JWT signing key");
+        }
+    }
+
+    public boolean isEnabled() {
+        return !"HS512".equalsIgnoreCase(algorithm);
+    }
+
+    /**
+     * @return the key to sign with, or null when the ring is disabled
+     */
+    public SigningKey signingKey() {
+        return keys.signing();
+    }
+
+    /**
+     * Public key for a kid header. An unknown kid may belong to a key another replica has just
+     * added, so it triggers a reload, at most once a second.
+     */
+    public PublicKey verificationKey(String kid) {
+        PublicKey key = keys.verification().get(kid);
+        if (key == null && isEnabled()) {
+            long now = System.currentTimeMillis();
+            if (now - lastReloadOnMiss >= RELOAD_ON_MISS_INTERVAL_MS) {
+                lastReloadOnMiss = now;
+                refresh();
+                key = keys.verification().get(kid);
+            }
+        }
+        return key;
+    }
+
+    /**
+     * When the ring took over from the shared secret: the creation time of its oldest key, in
+     * epoch milliseconds. Long.MIN_VALUE while no key is loaded.
+     */
+    public long startedAtMs() {
+        return keys.oldestCreatedAtMs();
+    }
+
+    /**
+     * The JWKS document (RFC 7517) with every published public key.
+     */
+    public byte[] jwks() {
+        return keys.jwks();
+    }
+
+    /**
+     * Strong ETag of {@link #jwks()}, changing whenever the key set does.
+     */
+    public String jwksETag() {
+        return keys.etag();
+    }
+
+    /**
+     * Reloads the table, rotates when the signing key is due for replacement, and drops
+     * keys whose tokens have all expired.
+     */
+    @Scheduled(fixedDelayString = "${app.jwt.keys.refresh-interval:60000}",
+               initialDelayString = "${app.jwt.keys.refresh-interval:60000}")
+    public synchronized void refresh() {
+        if (!isEnabled()) {
+            return;
+        }
+        try {
+            LocalDateTime now = currentTime();
+            List<StoredKey> stored = load(now);
+            if (rotationDue(stored, now)) {
+                rotate();
+                // A key another replica added while this one waited for the lock activates after the first now
+                now = currentTime();
+                stored = load(now);
+            }
+            this.keys = build(stored, now);
+            jdbcTemplate.update(PURGE_SQL, Timestamp.valueOf(now));
+        } catch (DataAccessException | GeneralSecurityException | JsonProcessingException ex) {
+            // The keys already loaded keep working
+            logger.error("JWT key ring refresh failed: {}", ex.getMessage());
+        }
+    }
+
+    private static LocalDateTime currentTime() {
+        // Column precision may round nanoseconds up past now, and a key activating now would wait
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+    }
+
+    private List<StoredKey> load(LocalDateTime now) {
+        return jdbcTemplate.query(SELECT_SQL, (rs, rowNum) -> {
+            String keyAlgorithm = rs.getString("algorithm");
+            try {
+                return new StoredKey(
+                        rs.getString("kid"),
+                        keyAlgorithm,
+                        keyFactory(keyAlgorithm).generatePublic(
+                                new X509EncodedKeySpec(Base64.getDecoder().decode(rs.getString("public_key")))),
+                        rs.getString("private_key"),
+                        rs.getTimestamp("created_at").toLocalDateTime(),
+                        rs.getTimestamp("activates_at").toLocalDateTime());
+            } catch (GeneralSecurityException | IllegalArgumentException ex) {
+                logger.error("Skipping unreadable JWT signing key {}: {}", rs.getString("kid"), ex.getMessage());
+                return null;
+            }
+        }, Timestamp.valueOf(now)).stream().filter(key -> key != null).toList();
+    }
+
+    private boolean rotationDue(List<StoredKey> stored, LocalDateTime now) {
+        StoredKey newest = null;
+        for (StoredKey key : stored) {
+            if (key.algorithm().equals(algorithm)) {
+                newest = key;
+            }
+        }
+        if (newest == null || unwrap(newest) == null) {
+            return true;
+        }
+        // A replacement is published publish-ahead before the current key's interval ends
+        return !newest.activatesAt().plus(Duration.ofMillis(rotationIntervalInMs))
+                .isAfter(now.plus(Duration.ofMillis(publishAheadInMs)));
+    }
+
+    /**
+     * Adds a replacement key unless another replica did first. The check is repeated under a row
+     * lock on jwt_signing_key_lock, so replicas that find the rotation due at the same time add
+     * one key between them.
+     */
+    private void rotate() throws GeneralSecurityException {
+        SignatureAlgorithm signatureAlgorithm = signatureAlgorithm(algorithm);
+        // EdDSA would default to Ed448, which few verifiers support
+        KeyPair keyPair = signatureAlgorithm == Jwts.SIG.EdDSA
+                ? Jwks.CRV.Ed25519.keyPair().build()
+                : signatureAlgorithm.keyPair().build();
+        String kid = Jwks.builder().key(keyPair.getPublic()).idFromThumbprint().build().getId();
+        String publicKey = Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded());
+        String wrappedPrivateKey = wrap(keyPair.getPrivate().getEncoded());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.queryForObject(LOCK_SQL, Integer.class);
+            LocalDateTime now = currentTime();
+            List<StoredKey> stored = load(now);
+            if (!rotationDue(stored, now)) {
+                return;
+            }
+
+            // Signs at once when nothing usable signs today; otherwise after it has been published
+            boolean usableKey = stored.stream()
+                    .anyMatch(key -> key.algorithm().equals(algorithm) && unwrap(key) != null);
+            LocalDateTime activatesAt = usableKey ? now.plus(Duration.ofMillis(publishAheadInMs)) : now;
+
+            jdbcTemplate.update(INSERT_SQL,
+                    kid,
+                    algorithm,
+                    publicKey,
+                    wrappedPrivateKey,
+                    Timestamp.valueOf(now),
+                    Timestamp.valueOf(activatesAt));
+            // Tokens signed by the keys being replaced stay verifiable until they expire
+            jdbcTemplate.update(RETIRE_SQL,
+                    Timestamp.valueOf(activatesAt.plus(Duration.ofMillis(tokenLifetimeInMs))), kid);
+            logger.info("Added {} JWT signing key {}, signing from {}", algorithm, kid, activatesAt);
+        });
+    }
+
+    private Keys build(List<StoredKey> stored, LocalDateTime now) throws JsonProcessingException {
+        SigningKey signing = keys.signing();
+        Map<String, PublicKey> verification = new HashMap<>();
+        List<Jwk<?>> published = new ArrayList<>();
+        StoredKey active = null;
+        LocalDateTime oldestCreatedAt = null;
+        for (StoredKey key : stored) {
+            if (oldestCreatedAt == null || key.createdAt().isBefore(oldestCreatedAt)) {
+                oldestCreatedAt = key.createdAt();
+            }
+            verification.put(key.kid(), key.publicKey());
+            published.add(Jwks.builder().key(key.publicKey()).id(key.kid())
+                    .algorithm(key.algorithm()).publicKeyUse("sig").build());
+            if (key.algorithm().equals(algorithm) && !key.activatesAt().isAfter(now)) {
+                active = key;
+            }
+        }
+
+        if (active != null && (signing == null || !signing.kid().equals(active.kid()))) {
+            PrivateKey privateKey = unwrap(active);
+            if (privateKey != null) {
+                signing = new SigningKey(active.kid(), privateKey, signatureAlgorithm(algorithm));
+                logger.info("Signing access tokens with {} key {}", algorithm, active.kid());
+            }
+        }
+
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("keys", published);
+        byte[] jwks = objectMapper.writeValueAsBytes(document);
+        long oldestCreatedAtMs = oldestCreatedAt == null ? Long.MIN_VALUE
+                : oldestCreatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return new Keys(signing, Map.copyOf(verification), jwks, etag(jwks), oldestCreatedAtMs);
+    }
+
+    private String wrap(byte[] privateKey) throws GeneralSecurityException {
+        byte[] iv = new byte[GCM_IV_BYTES];
+        random.nextBytes(iv);
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.ENCRYPT_MODE, wrappingKey, new GCMParameterSpec(GCM_TAG_BITS, iv));
+        byte[] encrypted = cipher.doFinal(privateKey);
+
+        byte[] wrapped = new byte[iv.length + encrypted.length];
+        System.arraycopy(iv, 0, wrapped, 0, iv.length);
+        System.arraycopy(encrypted, 0, wrapped, iv.length, encrypted.length);
+        return Base64.getEncoder().encodeToString(wrapped);
+    }
+
+    private PrivateKey unwrap(StoredKey key) {
+        try {
+            byte[] wrapped = Base64.getDecoder().decode(key.wrappedPrivateKey());
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.DECRYPT_MODE, wrappingKey, new GCMParameterSpec(GCM_TAG_BITS, wrapped, 0, GCM_IV_BYTES));
+            byte[] encoded = cipher.doFinal(wrapped, GCM_IV_BYTES, wrapped.length - GCM_IV_BYTES);
+            return keyFactory(key.algorithm()).generatePrivate(new PKCS8EncodedKeySpec(encoded));
+        } catch (GeneralSecurityException | IllegalArgumentException ex) {
+            logger.warn("JWT signing key {} cannot be unwrapped with the current secret", key.kid());
+            return null;
+        }
+    }
+
+    private static SignatureAlgorithm signatureAlgorithm(String name) {
+        return switch (name) {
+            case "ES256" -> Jwts.SIG.ES256;
+            case "EdDSA" -> Jwts.SIG.EdDSA;
+            default -> throw new IllegalStateException(
+                    "Unsupported app.jwt.signing.algorithm '" + name + "'; use ES256, EdDSA or HS512");
+        };
+    }
+
+    private static KeyFactory keyFactory(String name) throws GeneralSecurityException {
+        return KeyFactory.getInstance("EdDSA".equals(name) ? "EdDSA" : "EC");
+    }
+
+    private static String etag(byte[] content) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(content);
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(hash) + "\"";
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+}
@@ -2,88 +2,212 @@ package com.secureplatform.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
 import java.util.Date;
+import java.util.List;
+import java.util.UUID;
 
 /**
  * JWT Token Provider
  * Handles JWT token generation, validation, and parsing
+ *
+ * Tokens are signed with the current {@link JwtKeyRing} key (ES256 or EdDSA, named by a kid
+ * header), or with the shared HS512 secret when the ring is disabled. The parser is built once
+ * at startup and is safe to share between request threads.
+ *
+ * With app.jwt.compact.enabled, new tokens use the {@link CompactTokenCodec} encoding instead,
+ * signed with the same keys. Both formats are always accepted, told apart by the "ct." prefix
+ * (a JWT starts with its base64url header), so the setting can be switched either way while
+ * issued tokens stay valid.
  */
 @Component
 public class JwtTokenProvider {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtTokenProvider.class);
 
+    static final String ROLES_CLAIM = "roles";
+    static final String USERNAME_CLAIM = "username";
+    static final String EMAIL_CLAIM = "email";
+    static final String VERSION_CLAIM = "ver";
+    // iat in epoch milliseconds: iat has second precision, too coarse for revocation cutoffs
+    static final String ISSUED_AT_MS_CLAIM = "iat_ms";
+
     @Value("${app.jwt.secret}")
     private String jwtSecret;
 
     @Value("${app.jwt.expiration}")
     private int jwtExpirationInMs;
 
-    @Value("${app.jwt.refresh-expiration}")
-    private int refreshTokenExpirationInMs;
+    @Value("${app.jwt.claims-principal.enabled:false}")
+    private boolean claimsPrincipalEnabled;
+
+    // Accept tokens signed with the shared secret before the key ring took over, until they expire
+    @Value("${app.jwt.signing.accept-hs512:true}")
+    private boolean acceptHs512;
+
+    @Value("${app.jwt.compact.enabled:false}")
+    private boolean compactTokensEnabled;
+
+    @Autowired
+    private JwtKeyRing keyRing;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    private SecretKey signingKey;
+
+    private JwtParser jwtParser;
+
+    private CompactTokenCodec compactCodec;
+
+    @PostConstruct
+    void init() {
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        this.jwtParser = Jwts.parser()
+                .keyLocator(new LocatorAdapter<Key>() {
+                    @Override
+                    protected Key locate(JwsHeader header) {
+                        return verificationKey(header);
+                    }
+                })
+                .build();
+        this.compactCodec = new CompactTokenCodec(
+                acceptHs512 || !keyRing.isEnabled() ? signingKey : null,
+                this::isAcceptedHs512Token,
+                keyRing::verificationKey);
+    }
+
+    /**
+     * Key-ring tokens are verified with the public key named by their kid header; tokens without
+     * one with the shared secret, if still accepted. jjwt rejects a key that does not fit the
+     * header's algorithm, so a public key can never be used as an HMAC secret.
+     */
+    private Key verificationKey(JwsHeader header) {
+        if (header.getKeyId() != null) {
+            return keyRing.verificationKey(header.getKeyId());
+        }
+        boolean hs512 = Jwts.SIG.HS512.getId().equals(header.getAlgorithm());
+        return hs512 && (acceptHs512 || !keyRing.isEnabled()) ? signingKey : null;
+    }
+
+    /**
+     * While the key ring signs, a token signed with the shared secret must have been issued
+     * before the ring's first key and expire within one token lifetime of it. Holding the
+     * secret then no longer mints tokens once those issued before the switch have expired.
+     */
+    private boolean isAcceptedHs512Token(JwtClaims claims) {
+        if (!keyRing.isEnabled()) {
+            return true;
+        }
+        long ringStartedAt = keyRing.startedAtMs();
+        return claims.getIssuedAt() != null && claims.getExpiration() != null
+                && claims.getIssuedAt().getTime() < ringStartedAt
+                && claims.getExpiration().getTime() - jwtExpirationInMs <= ringStartedAt;
     }
 
     public String generateToken(Authentication authentication) {
-        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
-        Date expiryDate = new Date(System.currentTimeMillis() + jwtExpirationInMs);
+        return generateToken((UserPrincipal) authentication.getPrincipal());
+    }
 
-        return Jwts.builder()
-                .setSubject(Long.toString(userPrincipal.getId()))
-                .setIssuedAt(new Date())
-                .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
-                .compact();
+    public String generateToken(UserPrincipal userPrincipal) {
+        List<String> roles = userPrincipal.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList();
+
+        if (compactTokensEnabled) {
+            return claimsPrincipalEnabled
+                    ? signCompact(userPrincipal.getId(), roles, userPrincipal.getUsername(),
+                            userPrincipal.getEmail(), userPrincipal.getTokenVersion())
+                    : signCompact(userPrincipal.getId(), roles, null, null, null);
+        }
+
+        JwtBuilder builder = newBuilder(userPrincipal.getId(), jwtExpirationInMs)
+                .claim(ROLES_CLAIM, roles);
+        if (claimsPrincipalEnabled) {
+            builder.claim(USERNAME_CLAIM, userPrincipal.getUsername())
+                    .claim(EMAIL_CLAIM, userPrincipal.getEmail())
+                    .claim(VERSION_CLAIM, userPrincipal.getTokenVersion());
+        }
+
+        return sign(builder);
     }
 
     public String generateTokenFromUserId(Long userId) {
-        Date expiryDate = new Date(System.currentTimeMillis() + jwtExpirationInMs);
+        if (compactTokensEnabled) {
+            return signCompact(userId, List.of(), null, null, null);
+        }
+        return sign(newBuilder(userId, jwtExpirationInMs));
+    }
 
-        return Jwts.builder()
-                .setSubject(Long.toString(userId))
-                .setIssuedAt(new Date())
-                .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
-                .compact();
+    public boolean isClaimsPrincipalEnabled() {
+        return claimsPrincipalEnabled;
     }
 
-    public String generateRefreshToken(Long userId) {
-        Date expiryDate = new Date(System.currentTimeMillis() + refreshTokenExpirationInMs);
+    /**
+     * Longest validity of any token issued here; a revocation is kept this long at most.
+     * Refresh tokens are opaque and revoked in their own table (see RefreshTokenService).
+     */
+    public long getMaxTokenLifetimeMs() {
+        return jwtExpirationInMs;
+    }
 
+    private JwtBuilder newBuilder(Long userId, long validityInMs) {
+        long now = System.currentTimeMillis();
+
+        // The id lets a single token be revoked before it expires
         return Jwts.builder()
-                .setSubject(Long.toString(userId))
-                .setIssuedAt(new Date())
-                .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
-                .compact();
+                .id(UUID.randomUUID().toString())
+                .subject(Long.toString(userId))
+                .issuedAt(new Date(now))
+                .claim(ISSUED_AT_MS_CLAIM, now)
+                .expiration(new Date(now + validityInMs));
     }
 
-    public Long getUserIdFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    private String sign(JwtBuilder builder) {
+        JwtKeyRing.SigningKey ringKey = keyRing.signingKey();
+        if (ringKey == null) {
+            return builder
+                    .signWith(signingKey, Jwts.SIG.HS512)
+                    .compact();
+        }
+        return builder
+                .header().keyId(ringKey.kid()).and()
+                .signWith(ringKey.privateKey(), ringKey.algorithm())
+                .compact();
+    }
 
-        return Long.parseLong(claims.getSubject());
+    private String signCompact(Long userId, List<String> roles, String username, String email,
+                               Integer tokenVersion) {
+        long now = System.currentTimeMillis();
+        JwtClaims claims = new JwtClaims(UUID.randomUUID().toString(), userId, new Date(now),
+                new Date(now + jwtExpirationInMs), roles, username, email, tokenVersion);
+        try {
+            return compactCodec.encode(claims, keyRing.signingKey());
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("Cannot sign compact token", ex);
+        }
     }
 
-    public boolean validateToken(String authToken) {
+    /**
+     * Verifies the token signature and expiry and extracts its claims in a single pass.
+     *
+     * @return the parsed claims, or {@code null} if the token is not valid
+     */
+    public JwtClaims parseToken(String token) {
+        if (token.startsWith(CompactTokenCodec.PREFIX)) {
+            return parseCompactToken(token);
+        }
         try {
-            Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(authToken);
-            return true;
+            return verifiedClaims(token);
         } catch (MalformedJwtException ex) {
             logger.error("Invalid JWT token");
         } catch (ExpiredJwtException ex) {
@@ -95,21 +219,75 @@ public class JwtTokenProvider {
         } catch (Exception ex) {
             logger.error("JWT validation error: {}", ex.getMessage());
         }
-        return false;
+        return null;
     }
 
-    public Date getExpirationDateFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    private JwtClaims parseCompactToken(String token) {
+        try {
+            return compactCodec.decode(token, CompactTokenCodec.PREFIX.length(), System.currentTimeMillis());
+        } catch (IllegalArgumentException ex) {
+            logger.error("Invalid compact token: {}", ex.getMessage());
+        } catch (GeneralSecurityException ex) {
+            logger.error("Compact token validation error: {}", ex.getMessage());
+        }
+        return null;
+    }
 
-        return claims.getExpiration();
+    public Long getUserIdFromToken(String token) {
+        return parseClaims(token).getUserId();
+    }
+
+    public boolean validateToken(String authToken) {
+        return parseToken(authToken) != null;
+    }
+
+    public Date getExpirationDateFromToken(String token) {
+        return parseClaims(token).getExpiration();
     }
 
     public boolean isTokenExpired(String token) {
         Date expiration = getExpirationDateFromToken(token);
         return expiration.before(new Date());
     }
+
+    /**
+     * Like {@link #parseToken(String)}, but throws instead of returning null.
+     */
+    private JwtClaims parseClaims(String token) {
+        if (token.startsWith(CompactTokenCodec.PREFIX)) {
+            try {
+                return compactCodec.decode(token, CompactTokenCodec.PREFIX.length(), System.currentTimeMillis());
+            } catch (GeneralSecurityException ex) {
+                throw new IllegalArgumentException("Compact token validation error", ex);
+            }
+        }
+        return verifiedClaims(token);
+    }
+
+    private JwtClaims verifiedClaims(String token) {
+        Jws<Claims> jws = jwtParser.parseSignedClaims(token);
+        JwtClaims claims = toJwtClaims(jws.getPayload());
+        if (jws.getHeader().getKeyId() == null && !isAcceptedHs512Token(claims)) {
+            throw new UnsupportedJwtException("Tokens signed with the shared secret are no longer accepted");
+        }
+        return claims;
+    }
+
+    private JwtClaims toJwtClaims(Claims claims) {
+        List<?> rawRoles = claims.get(ROLES_CLAIM, List.class);
+        List<String> roles = rawRoles == null ? List.of()
+                : rawRoles.stream().map(String::valueOf).toList();
+        Long issuedAtMs = claims.get(ISSUED_AT_MS_CLAIM, Long.class);
+
+        return new JwtClaims(
+                claims.getId(),
+                Long.parseLong(claims.getSubject()),
+                issuedAtMs != null ? new Date(issuedAtMs) : claims.getIssuedAt(),
+                claims.getExpiration(),
+                roles,
+                claims.get(USERNAME_CLAIM, String.class),
+                claims.get(EMAIL_CLAIM, String.class),
+                claims.get(VERSION_CLAIM, Integer.class)
+        );
+    }
 }
@@ -0,0 +1,103 @@
+package com.secureplatform.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Local Lockout Store
+ * In-process failure windows and locks; each replica keeps its own, so this is only exact
+ * with a single replica
+ *
+ * Entries are dropped after {@code retention} without a failure, which must cover both the
+ * failure window and the lock duration.
+ */
+public class LocalLockoutStore implements LockoutStore {
+
+    private final Cache<Long, Entry> entries;
+    private final Set<Long> changed = ConcurrentHashMap.newKeySet();
+
+    public LocalLockoutStore(long maxUsers, Duration retention) {
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterWrite(retention)
+                .build();
+    }
+
+    @Override
+    public LockoutState recordFailure(Long userId, int maxAttempts, Duration window, Duration lockDuration) {
+        Entry entry = entries.get(userId, id -> new Entry());
+        LockoutState state = entry.recordFailure(LocalDateTime.now(), maxAttempts, window, lockDuration);
+        // Re-put to restart the retention period
+        entries.put(userId, entry);
+        changed.add(userId);
+        return state;
+    }
+
+    @Override
+    public LocalDateTime lockedUntil(Long userId) {
+        Entry entry = entries.getIfPresent(userId);
+        return entry != null ? entry.state(LocalDateTime.now()).lockedUntil() : null;
+    }
+
+    @Override
+    public void clear(Long userId) {
+        entries.invalidate(userId);
+    }
+
+    @Override
+    public Map<Long, LockoutState> drainChanged(int max) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, LockoutState> drained = new HashMap<>();
+        Iterator<Long> iterator = changed.iterator();
+        while (iterator.hasNext() && drained.size() < max) {
+            Long userId = iterator.next();
+            iterator.remove();
+            Entry entry = entries.getIfPresent(userId);
+            drained.put(userId, entry != null ? entry.state(now) : new LockoutState(0, null, false));
+        }
+        return drained;
+    }
+
+    private static final class Entry {
+
+        private final Deque<LocalDateTime> failures = new ArrayDeque<>();
+        private LocalDateTime lockedUntil;
+
+        synchronized LockoutState recordFailure(LocalDateTime now, int maxAttempts,
+                                                Duration window, Duration lockDuration) {
+            LocalDateTime windowStart = now.minus(window);
+            while (!failures.isEmpty() && !failures.peekFirst().isAfter(windowStart)) {
+                failures.removeFirst();
+            }
+            failures.addLast(now);
+            while (failures.size() > maxAttempts) {
+                failures.removeFirst();
+            }
+
+            boolean newlyLocked = false;
+            if (!isLocked(now) && failures.size() >= maxAttempts) {
+                lockedUntil = now.plus(lockDuration);
+                newlyLocked = true;
+            }
+            return new LockoutState(failures.size(), lockedUntil, newlyLocked);
+        }
+
+        synchronized LockoutState state(LocalDateTime now) {
+            return new LockoutState(failures.size(), isLocked(now) ? lockedUntil : null, false);
+        }
+
+        private boolean isLocked(LocalDateTime now) {
+            return lockedUntil != null && lockedUntil.isAfter(now);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.secureplatform.security;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Lockout Store
+ * Failed-login counters and account locks, kept outside the database so recording a failure
+ * and checking a lock cost no SQL; the Redis implementation shares them between replicas
+ *
+ * Every user whose state changes is remembered until {@link #drainChanged(int)} hands it to
+ * the reconciler that copies it to the users table.
+ */
+public interface LockoutStore {
+
+    /**
+     * Failed attempts inside the current window and the lock expiry, if any.
+     * {@code newlyLocked} is set only on the failure that triggered the lock.
+     */
+    record LockoutState(int failedAttempts, LocalDateTime lockedUntil, boolean newlyLocked) {
+    }
+
+    /**
+     * Counts a failed login and locks the user for {@code lockDuration} once
+     * {@code maxAttempts} failures fall within {@code window}.
+     */
+    LockoutState recordFailure(Long userId, int maxAttempts, Duration window, Duration lockDuration);
+
+    /**
+     * @return the lock expiry, or null if the user is not locked
+     */
+    LocalDateTime lockedUntil(Long userId);
+
+    /**
+     * Forgets the user's failures and lock after a successful login. The user is not marked
+     * as changed: the login bookkeeping already resets the persisted counter.
+     */
+    void clear(Long userId);
+
+    /**
+     * Removes up to {@code max} users changed since the last call and returns their current state.
+     */
+    Map<Long, LockoutState> drainChanged(int max);
+}
@@ -0,0 +1,60 @@
+package com.secureplatform.security;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * Password Hash Service
+ * Chooses the hashing scheme per account: a memory-hard scheme for people and one without a
+ * per-verify memory cost for service accounts that authenticate at high rates
+ *
+ * PBKDF2 at 310k iterations is not faster to verify than Argon2id (m=19 MiB, t=2); see
+ * PasswordEncoderBenchmark. What it saves is the 19 MiB each concurrent Argon2 verify holds,
+ * which bounds memory when many service logins arrive at once.
+ */
+@Component
+public class PasswordHashService {
+
+    @Value("${app.security.password.service-account-scheme:pbkdf2}")
+    private String serviceAccountScheme;
+
+    @Value("${app.security.password.service-accounts:}")
+    private Set<String> serviceAccounts;
+
+    @Autowired
+    private BoundedPasswordEncoder passwordEncoder;
+
+    @Autowired
+    private PasswordSchemes passwordSchemes;
+
+    private PasswordEncoder serviceAccountEncoder;
+
+    @PostConstruct
+    void init() {
+        this.serviceAccountEncoder = passwordEncoder.sharing(passwordSchemes.delegatingEncoder(serviceAccountScheme));
+    }
+
+    public String encode(String username, CharSequence rawPassword) {
+        return encoderFor(username).encode(rawPassword);
+    }
+
+    /**
+     * Whether the stored hash uses a different scheme or weaker settings than this account should have.
+     */
+    public boolean needsRehash(String username, String encodedPassword) {
+        return encodedPassword != null && encoderFor(username).upgradeEncoding(encodedPassword);
+    }
+
+    public boolean isServiceAccount(String username) {
+        return serviceAccounts.contains(username);
+    }
+
+    private PasswordEncoder encoderFor(String username) {
+        return isServiceAccount(username) ? serviceAccountEncoder : passwordEncoder;
+    }
+}
@@ -0,0 +1,16 @@
+package com.secureplatform.security;
+
+/**
+ * Password Hashing Unavailable Exception
+ * Thrown when the password hashing executor is saturated and cannot accept more work
+ */
+public class PasswordHashingUnavailableException extends RuntimeException {
+
+    public PasswordHashingUnavailableException(String message) {
+        super(message);
+    }
+
+    public PasswordHashingUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,72 @@
+package com.secureplatform.security;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Password Schemes
+ * Registry of the supported password hashing schemes and their cost settings
+ *
+ * Hashes are stored as {id}hash. Legacy hashes without a prefix are verified as BCrypt,
+ * which is what the platform stored before prefixes were introduced.
+ */
+@Component
+public class PasswordSchemes {
+
+    public static final String BCRYPT = "bcrypt";
+    public static final String ARGON2 = "argon2";
+    public static final String PBKDF2 = "pbkdf2";
+
+    @Value("${app.security.bcrypt.strength:10}")
+    private int bcryptStrength;
+
+    @Value("${app.security.bcrypt.calibrate:false}")
+    private boolean calibrateBcrypt;
+
+    @Value("${app.security.bcrypt.target-latency-ms:100}")
+    private long bcryptTargetLatencyInMs;
+
+    @Value("${app.security.argon2.memory-kb:19456}")
+    private int argon2MemoryInKb;
+
+    @Value("${app.security.argon2.iterations:2}")
+    private int argon2Iterations;
+
+    @Value("${app.security.pbkdf2.iterations:310000}")
+    private int pbkdf2Iterations;
+
+    private Map<String, PasswordEncoder> encoders;
+
+    @PostConstruct
+    void init() {
+        int strength = calibrateBcrypt
+                ? BCryptStrengthCalibrator.calibrate(bcryptTargetLatencyInMs, 10, 16)
+                : bcryptStrength;
+
+        this.encoders = Map.of(
+                BCRYPT, new BCryptPasswordEncoder(strength),
+                ARGON2, new Argon2PasswordEncoder(16, 32, 1, argon2MemoryInKb, argon2Iterations),
+                PBKDF2, new Pbkdf2PasswordEncoder("", 16, pbkdf2Iterations,
+                        Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256));
+    }
+
+    /**
+     * Encoder that writes hashes with {@code defaultScheme} and verifies every registered scheme.
+     */
+    public DelegatingPasswordEncoder delegatingEncoder(String defaultScheme) {
+        if (!encoders.containsKey(defaultScheme)) {
+            throw new IllegalArgumentException("Unknown password scheme: " + defaultScheme);
+        }
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(defaultScheme, encoders);
+        encoder.setDefaultPasswordEncoderForMatches(encoders.get(BCRYPT));
+        return encoder;
+    }
+}
@@ -0,0 +1,110 @@
+package com.secureplatform.security;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Redis Lockout Store
+ * Failure windows and locks shared by all replicas, so an attacker gets one budget per
+ * account however many replicas the requests are spread over
+ *
+ * A failure is recorded by one Lua script; reconciliation reads state in a single pipeline.
+ * Redis errors propagate as {@link DataAccessException} so callers can fall back to the database.
+ */
+public class RedisLockoutStore implements LockoutStore {
+
+    private static final String FAILURES_KEY = "lockout:failures:";
+    private static final String LOCK_KEY = "lockout:lock:";
+    private static final String CHANGED_KEY = "lockout:changed";
+
+    private final StringRedisTemplate redisTemplate;
+    private final DefaultRedisScript<List<Object>> recordFailureScript;
+
+    @SuppressWarnings("unchecked")
+    public RedisLockoutStore(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+        this.recordFailureScript = new DefaultRedisScript<>();
+        this.recordFailureScript.setLocation(new ClassPathResource("redis/record-failure.lua"));
+        // The script returns a multi-bulk reply: attempts, locked-until millis, newly-locked flag
+        this.recordFailureScript.setResultType((Class<List<Object>>) (Class<?>) List.class);
+    }
+
+    @Override
+    public LockoutState recordFailure(Long userId, int maxAttempts, Duration window, Duration lockDuration) {
+        List<Object> result = redisTemplate.execute(recordFailureScript,
+                List.of(FAILURES_KEY + userId, LOCK_KEY + userId, CHANGED_KEY),
+                String.valueOf(System.currentTimeMillis()),
+                String.valueOf(window.toMillis()),
+                String.valueOf(maxAttempts),
+                String.valueOf(lockDuration.toMillis()),
+                userId.toString(),
+                UUID.randomUUID().toString());
+
+        return new LockoutState(
+                ((Number) result.get(0)).intValue(),
+                toLocalDateTime(((Number) result.get(1)).longValue()),
+                ((Number) result.get(2)).intValue() == 1);
+    }
+
+    @Override
+    public LocalDateTime lockedUntil(Long userId) {
+        String lockedUntil = redisTemplate.opsForValue().get(LOCK_KEY + userId);
+        return lockedUntil != null ? toLocalDateTime(Long.parseLong(lockedUntil)) : null;
+    }
+
+    @Override
+    public void clear(Long userId) {
+        redisTemplate.delete(List.of(FAILURES_KEY + userId, LOCK_KEY + userId));
+    }
+
+    @Override
+    public Map<Long, LockoutState> drainChanged(int max) {
+        List<String> userIds = redisTemplate.opsForSet().pop(CHANGED_KEY, max);
+        Map<Long, LockoutState> drained = new HashMap<>();
+        if (userIds == null || userIds.isEmpty()) {
+            return drained;
+        }
+
+        // ZCARD may still count failures that left the window after the user's last failure;
+        // the persisted counter is informational, locks are decided by the script
+        List<Object> replies = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, String> redis = (RedisOperations<String, String>) operations;
+                for (String userId : userIds) {
+                    redis.opsForZSet().zCard(FAILURES_KEY + userId);
+                    redis.opsForValue().get(LOCK_KEY + userId);
+                }
+                return null;
+            }
+        });
+
+        for (int i = 0; i < userIds.size(); i++) {
+            Long attempts = (Long) replies.get(2 * i);
+            String lockedUntil = (String) replies.get(2 * i + 1);
+            drained.put(Long.valueOf(userIds.get(i)), new LockoutState(
+                    attempts != null ? attempts.intValue() : 0,
+                    lockedUntil != null ? toLocalDateTime(Long.parseLong(lockedUntil)) : null,
+                    false));
+        }
+        return drained;
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return epochMillis > 0 ? LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault()) : null;
+    }
+}
@@ -0,0 +1,202 @@
+package com.secureplatform.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Request Authorization Trie
+ * URL authorization rules held in a path-segment trie, so a request is matched in one walk
+ * over its path instead of trying each request matcher in turn
+ *
+ * Patterns are exact paths ("/api/health") or subtrees ("/api/auth/**", which also matches
+ * "/api/auth" itself), optionally for one HTTP method. The most specific match wins: an exact
+ * rule over a subtree rule, a deeper subtree over a shallower one, a method-specific rule
+ * over one for any method. Requests matching no pattern get the default rule. Matching
+ * compares path segments in place and does not allocate.
+ */
+public final class RequestAuthorizationTrie implements AuthorizationManager<RequestAuthorizationContext> {
+
+    private static final String SUBTREE = "/**";
+    private static final HttpMethod[] METHODS = HttpMethod.values();
+
+    private final Node root = new Node("");
+    private final AuthorizationRule defaultRule;
+
+    private RequestAuthorizationTrie(AuthorizationRule defaultRule) {
+        this.defaultRule = defaultRule;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public AuthorizationDecision check(Supplier<Authentication> authentication, RequestAuthorizationContext context) {
+        return match(context.getRequest()).decide(authentication);
+    }
+
+    public AuthorizationRule match(HttpServletRequest request) {
+        String path = request.getServletPath();
+        if (request.getPathInfo() != null) {
+            path = path + request.getPathInfo();
+        }
+        return match(request.getMethod(), path);
+    }
+
+    /**
+     * The rule for a method and a path within the application.
+     */
+    public AuthorizationRule match(String method, String path) {
+        int methodIndex = methodIndex(method);
+        Node node = root;
+        AuthorizationRule subtreeRule = node.subtree(methodIndex);
+
+        int start = path.startsWith("/") ? 1 : 0;
+        while (node != null && start <= path.length()) {
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = path.length();
+            }
+            node = node.child(path, start, end - start);
+            if (node == null) {
+                break;
+            }
+            AuthorizationRule rule = node.subtree(methodIndex);
+            if (rule != null) {
+                subtreeRule = rule;
+            }
+            if (end == path.length()) {
+                AuthorizationRule exact = node.exact(methodIndex);
+                return exact != null ? exact : subtreeRule != null ? subtreeRule : defaultRule;
+            }
+            start = end + 1;
+        }
+        return subtreeRule != null ? subtreeRule : defaultRule;
+    }
+
+    private static int methodIndex(String method) {
+        for (int i = 0; i < METHODS.length; i++) {
+            if (METHODS[i].name().equals(method)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static final class Node {
+
+        private final String segment;
+        private Node[] children = new Node[0];
+        // Index METHODS.length holds the rule for any method
+        private final AuthorizationRule[] exactRules = new AuthorizationRule[METHODS.length + 1];
+        private final AuthorizationRule[] subtreeRules = new AuthorizationRule[METHODS.length + 1];
+
+        private Node(String segment) {
+            this.segment = segment;
+        }
+
+        private Node child(String path, int offset, int length) {
+            for (Node child : children) {
+                if (child.segment.length() == length && path.regionMatches(offset, child.segment, 0, length)) {
+                    return child;
+                }
+            }
+            return null;
+        }
+
+        private Node childOrCreate(String segment) {
+            Node child = child(segment, 0, segment.length());
+            if (child == null) {
+                child = new Node(segment);
+                children = Arrays.copyOf(children, children.length + 1);
+                children[children.length - 1] = child;
+            }
+            return child;
+        }
+
+        private AuthorizationRule exact(int methodIndex) {
+            return pick(exactRules, methodIndex);
+        }
+
+        private AuthorizationRule subtree(int methodIndex) {
+            return pick(subtreeRules, methodIndex);
+        }
+
+        private static AuthorizationRule pick(AuthorizationRule[] rules, int methodIndex) {
+            if (methodIndex >= 0 && rules[methodIndex] != null) {
+                return rules[methodIndex];
+            }
+            return rules[METHODS.length];
+        }
+    }
+
+    public static final class Builder {
+
+        private record Entry(HttpMethod method, String pattern, AuthorizationRule rule) {
+        }
+
+        private final List<Entry> entries = new ArrayList<>();
+        private AuthorizationRule defaultRule = AuthorizationRule.authenticated();
+
+        private Builder() {
+        }
+
+        public Builder rule(String pattern, AuthorizationRule rule) {
+            return rule(null, pattern, rule);
+        }
+
+        public Builder rule(HttpMethod method, String pattern, AuthorizationRule rule) {
+            int wildcard = pattern.indexOf('*');
+            if (!pattern.startsWith("/") || (wildcard >= 0 && wildcard != pattern.length() - 2)
+                    || (wildcard >= 0 && !pattern.endsWith(SUBTREE))) {
+                throw new IllegalArgumentException("Unsupported pattern " + pattern
+                        + "; use an exact path or a path ending in " + SUBTREE);
+            }
+            entries.add(new Entry(method, pattern, rule));
+            return this;
+        }
+
+        /**
+         * Rule for requests that match no pattern; authenticated unless set.
+         */
+        public Builder defaultRule(AuthorizationRule rule) {
+            this.defaultRule = rule;
+            return this;
+        }
+
+        public RequestAuthorizationTrie build() {
+            RequestAuthorizationTrie trie = new RequestAuthorizationTrie(defaultRule);
+            for (Entry entry : entries) {
+                boolean subtree = entry.pattern().endsWith(SUBTREE);
+                String path = subtree
+                        ? entry.pattern().substring(0, entry.pattern().length() - SUBTREE.length())
+                        : entry.pattern();
+
+                Node node = trie.root;
+                if (!path.isEmpty()) {
+                    for (String segment : path.substring(1).split("/", -1)) {
+                        node = node.childOrCreate(segment);
+                    }
+                }
+
+                AuthorizationRule[] target = subtree ? node.subtreeRules : node.exactRules;
+                int index = entry.method() != null ? methodIndex(entry.method().name()) : METHODS.length;
+                if (target[index] != null) {
+                    throw new IllegalArgumentException("Duplicate rule for "
+                            + (entry.method() != null ? entry.method() + " " : "") + entry.pattern());
+                }
+                target[index] = entry.rule();
+            }
+            return trie;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.secureplatform.security;
+
+import com.secureplatform.model.ERole;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Role Authorities
+ * Shared, pre-built authorities for every combination of roles
+ *
+ * A role set is identified by its bitmask (bit {@code ordinal()} per role), which indexes a
+ * table of immutable authority lists built once, so principals never allocate authorities.
+ */
+public final class RoleAuthorities {
+
+    private static final ERole[] ROLES = ERole.values();
+
+    private static final GrantedAuthority[] AUTHORITIES = new GrantedAuthority[ROLES.length];
+
+    @SuppressWarnings("unchecked")
+    private static final List<GrantedAuthority>[] AUTHORITY_LISTS = (List<GrantedAuthority>[]) new List<?>[1 << ROLES.length];
+
+    static {
+        for (ERole role : ROLES) {
+            AUTHORITIES[role.ordinal()] = new SimpleGrantedAuthority(role.name());
+        }
+        for (int mask = 0; mask < AUTHORITY_LISTS.length; mask++) {
+            List<GrantedAuthority> authorities = new ArrayList<>(Integer.bitCount(mask));
+            for (ERole role : ROLES) {
+                if ((mask & bit(role)) != 0) {
+                    authorities.add(AUTHORITIES[role.ordinal()]);
+                }
+            }
+            AUTHORITY_LISTS[mask] = List.copyOf(authorities);
+        }
+    }
+
+    private RoleAuthorities() {
+    }
+
+    public static int bit(ERole role) {
+        return 1 << role.ordinal();
+    }
+
+    public static int mask(Set<ERole> roles) {
+        int mask = 0;
+        for (ERole role : roles) {
+            mask |= bit(role);
+        }
+        return mask;
+    }
+
+    public static GrantedAuthority authority(ERole role) {
+        return AUTHORITIES[role.ordinal()];
+    }
+
+    /**
+     * The shared, immutable authority list of a role bitmask.
+     */
+    public static List<GrantedAuthority> authorities(int mask) {
+        return AUTHORITY_LISTS[mask];
+    }
+
+    /**
+     * Parses authority names such as "ROLE_ADMIN"; names that are not a known role are ignored.
+     */
+    public static EnumSet<ERole> roles(Collection<String> authorityNames) {
+        EnumSet<ERole> roles = EnumSet.noneOf(ERole.class);
+        for (String name : authorityNames) {
+            for (ERole role : ROLES) {
+                if (role.name().equals(name)) {
+                    roles.add(role);
+                    break;
+                }
+            }
+        }
+        return roles;
+    }
+}
@@ -1,18 +1,29 @@
 package com.secureplatform.security;
 
+import com.secureplatform.model.ERole;
+import com.secureplatform.ratelimit.RateLimitFilter;
+import com.secureplatform.ratelimit.RateLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import org.springframework.aop.Advisor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
 import org.springframework.http.HttpMethod;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authorization.method.AuthorizationManagerBeforeMethodInterceptor;
+import org.springframework.security.authorization.method.PreAuthorizeAuthorizationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
@@ -27,7 +38,8 @@ import java.util.Arrays;
  */
 @Configuration
 @EnableWebSecurity
-@EnableMethodSecurity(prePostEnabled = true)
+// @PreAuthorize is enforced by the compiled interceptor below instead of the default SpEL one
+@EnableMethodSecurity(prePostEnabled = false)
 public class SecurityConfig {
 
     @Autowired
@@ -36,9 +48,71 @@ public class SecurityConfig {
     @Autowired
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Value("${app.security.password.scheme:argon2}")
+    private String passwordScheme;
+
+    @Value("${app.security.password-hashing.threads:0}")
+    private int hashingThreads;
+
+    @Value("${app.security.password-hashing.queue-capacity:0}")
+    private int hashingQueueCapacity;
+
+    @Value("${app.security.password-hashing.timeout-ms:5000}")
+    private long hashingTimeoutInMs;
+
+    /**
+     * Delegating encoder writing {id}-prefixed hashes with the configured default scheme.
+     * Hashing runs on a bounded pool, which also caps the memory Argon2 can use concurrently.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder(PasswordSchemes passwordSchemes, MeterRegistry meterRegistry) {
+        int threads = hashingThreads > 0 ? hashingThreads : Runtime.getRuntime().availableProcessors();
+        int queueCapacity = hashingQueueCapacity > 0 ? hashingQueueCapacity : threads * 4;
+
+        return new BoundedPasswordEncoder(passwordSchemes.delegatingEncoder(passwordScheme), threads,
+                queueCapacity, hashingTimeoutInMs, meterRegistry);
+    }
+
+    /**
+     * Method security for @PreAuthorize: simple role expressions are compiled to bitmask checks
+     * on first use, the rest are evaluated as SpEL.
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor preAuthorizeAuthorizationMethodInterceptor(ApplicationContext applicationContext) {
+        DefaultMethodSecurityExpressionHandler expressionHandler = new DefaultMethodSecurityExpressionHandler();
+        expressionHandler.setApplicationContext(applicationContext);
+        PreAuthorizeAuthorizationManager fallback = new PreAuthorizeAuthorizationManager();
+        fallback.setExpressionHandler(expressionHandler);
+
+        return AuthorizationManagerBeforeMethodInterceptor.preAuthorize(new CompiledPreAuthorizeManager(fallback));
+    }
+
+    /**
+     * URL rules, matched in one walk of a path trie; the most specific pattern wins.
+     */
+    public static RequestAuthorizationTrie requestAuthorization() {
+        return RequestAuthorizationTrie.builder()
+                // Public endpoints
+                .rule("/api/auth/**", AuthorizationRule.permitAll())
+                .rule("/api/health", AuthorizationRule.permitAll())
+                .rule("/api/docs/**", AuthorizationRule.permitAll())
+                .rule("/.well-known/jwks.json", AuthorizationRule.permitAll())
+                .rule("/actuator/health", AuthorizationRule.permitAll())
+                .rule("/actuator/**", AuthorizationRule.anyRole(ERole.ROLE_ADMIN))
+                .rule(HttpMethod.POST, "/api/users/register", AuthorizationRule.permitAll())
+
+                // Protected endpoints
+                .rule("/api/admin/**", AuthorizationRule.anyRole(ERole.ROLE_ADMIN))
+                .rule("/api/users/**", AuthorizationRule.authenticated())
+                .rule("/api/secure/**", AuthorizationRule.authenticated())
+
+                // Default - require authentication
+                .defaultRule(AuthorizationRule.authenticated())
+                .build();
     }
 
     @Bean
@@ -55,25 +129,16 @@ public class SecurityConfig {
             .exceptionHandling(exception -> exception.authenticationEntryPoint(jwtAuthenticationEntryPoint))
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(authz -> authz
-                // Public endpoints
-                .requestMatchers("/api/auth/**").permitAll()
-                .requestMatchers("/api/health").permitAll()
-                .requestMatchers("/api/docs/**").permitAll()
-                .requestMatchers("/actuator/health").permitAll()
-                .requestMatchers("/actuator/**").hasRole("ADMIN")
-                .requestMatchers(HttpMethod.POST, "/api/users/register").permitAll()
-                
-                // Protected endpoints
-                .requestMatchers("/api/admin/**").hasRole("ADMIN")
-                .requestMatchers("/api/users/**").authenticated()
-                .requestMatchers("/api/secure/**").authenticated()
-                
-                // Default - require authentication
-                .anyRequest().authenticated()
+                // Completion of streamed responses; the request was authorized on its original dispatch
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
+                .anyRequest().access(requestAuthorization())
             );
 
-        // Add JWT filter
+        // Add JWT filter, with per-client rate limiting before it and per-user limiting after it
         http.addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+        http.addFilterBefore(RateLimitFilter.byClientIp(rateLimiter), JwtAuthenticationFilter.class);
+        http.addFilterAfter(RateLimitFilter.byUser(rateLimiter), JwtAuthenticationFilter.class);
 
         return http.build();
     }
@@ -1,15 +1,17 @@
 package com.secureplatform.security;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.secureplatform.model.ERole;
+import com.secureplatform.model.Role;
 import com.secureplatform.model.User;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
-import java.util.List;
+import java.util.EnumSet;
 import java.util.Objects;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 /**
  * User Principal for Spring Security
@@ -24,45 +26,106 @@ public class UserPrincipal implements UserDetails {
     @JsonIgnore
     private String password;
     
-    private Collection<? extends GrantedAuthority> authorities;
+    // Bitmask of ERole ordinals; authorities are the shared lists from RoleAuthorities
+    private int roleMask;
     private boolean enabled;
     private boolean accountNonExpired;
     private boolean accountNonLocked;
     private boolean credentialsNonExpired;
+    private int tokenVersion;
+    private LocalDateTime lockedUntil;
 
     public UserPrincipal(Long id, String username, String email, String password,
-                        Collection<? extends GrantedAuthority> authorities,
+                        Set<ERole> roles,
                         boolean enabled, boolean accountNonExpired, 
                         boolean accountNonLocked, boolean credentialsNonExpired) {
+        this(id, username, email, password, roles, enabled, accountNonExpired,
+                accountNonLocked, credentialsNonExpired, 0);
+    }
+
+    public UserPrincipal(Long id, String username, String email, String password,
+                        Set<ERole> roles,
+                        boolean enabled, boolean accountNonExpired,
+                        boolean accountNonLocked, boolean credentialsNonExpired,
+                        int tokenVersion) {
+        this(id, username, email, password, roles, enabled, accountNonExpired,
+                accountNonLocked, credentialsNonExpired, tokenVersion, null);
+    }
+
+    public UserPrincipal(Long id, String username, String email, String password,
+                        Set<ERole> roles,
+                        boolean enabled, boolean accountNonExpired,
+                        boolean accountNonLocked, boolean credentialsNonExpired,
+                        int tokenVersion, LocalDateTime lockedUntil) {
+        this(id, username, email, password, RoleAuthorities.mask(roles), enabled, accountNonExpired,
+                accountNonLocked, credentialsNonExpired, tokenVersion, lockedUntil);
+    }
+
+    private UserPrincipal(Long id, String username, String email, String password, int roleMask,
+                          boolean enabled, boolean accountNonExpired,
+                          boolean accountNonLocked, boolean credentialsNonExpired,
+                          int tokenVersion, LocalDateTime lockedUntil) {
         this.id = id;
         this.username = username;
         this.email = email;
         this.password = password;
-        this.authorities = authorities;
+        this.roleMask = roleMask;
         this.enabled = enabled;
         this.accountNonExpired = accountNonExpired;
         this.accountNonLocked = accountNonLocked;
         this.credentialsNonExpired = credentialsNonExpired;
+        this.tokenVersion = tokenVersion;
+        this.lockedUntil = lockedUntil;
     }
 
     public static UserPrincipal create(User user) {
-        List<GrantedAuthority> authorities = user.getRoles().stream()
-                .map(role -> new SimpleGrantedAuthority("ROLE_" + role.getName().name()))
-                .collect(Collectors.toList());
+        Set<ERole> roles = EnumSet.noneOf(ERole.class);
+        for (Role role : user.getRoles()) {
+            roles.add(role.getName());
+        }
 
         return new UserPrincipal(
                 user.getId(),
                 user.getUsername(),
                 user.getEmail(),
                 user.getPassword(),
-                authorities,
+                roles,
                 user.isEnabled(),
                 user.isAccountNonExpired(),
                 user.isAccountNonLocked(),
-                user.isCredentialsNonExpired()
+                user.isCredentialsNonExpired(),
+                user.getTokenVersion() != null ? user.getTokenVersion() : 0,
+                user.getLockedUntil()
+        );
+    }
+
+    /**
+     * Rebuilds a principal from the claims of a verified token without touching the database.
+     * Only tokens issued to enabled, unlocked accounts carry these claims.
+     */
+    public static UserPrincipal fromClaims(JwtClaims claims) {
+        return new UserPrincipal(
+                claims.getUserId(),
+                claims.getUsername(),
+                claims.getEmail(),
+                null,
+                RoleAuthorities.roles(claims.getRoles()),
+                true,
+                true,
+                true,
+                true,
+                claims.getTokenVersion()
         );
     }
 
+    /**
+     * Copy of this principal locked until the given time, for locks held outside the database.
+     */
+    public UserPrincipal withLockedUntil(LocalDateTime lockedUntil) {
+        return new UserPrincipal(id, username, email, password, roleMask, enabled, accountNonExpired,
+                accountNonLocked, credentialsNonExpired, tokenVersion, lockedUntil);
+    }
+
     public Long getId() {
         return id;
     }
@@ -71,6 +134,39 @@ public class UserPrincipal implements UserDetails {
         return email;
     }
 
+    public int getTokenVersion() {
+        return tokenVersion;
+    }
+
+    public LocalDateTime getLockedUntil() {
+        return lockedUntil;
+    }
+
+    public boolean hasRole(ERole role) {
+        return (roleMask & RoleAuthorities.bit(role)) != 0;
+    }
+
+    public Set<ERole> getRoles() {
+        EnumSet<ERole> roles = EnumSet.noneOf(ERole.class);
+        for (ERole role : ERole.values()) {
+            if (hasRole(role)) {
+                roles.add(role);
+            }
+        }
+        return roles;
+    }
+
+    public int getRoleMask() {
+        return roleMask;
+    }
+
+    /**
+     * Whether the account is locked by its flag, as opposed to a temporary lockout.
+     */
+    public boolean isAdministrativelyLocked() {
+        return !accountNonLocked;
+    }
+
     @Override
     public String getUsername() {
         return username;
@@ -83,7 +179,7 @@ public class UserPrincipal implements UserDetails {
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return authorities;
+        return RoleAuthorities.authorities(roleMask);
     }
 
     @Override
@@ -93,7 +189,8 @@ public class UserPrincipal implements UserDetails {
 
     @Override
     public boolean isAccountNonLocked() {
-        return accountNonLocked;
+        // Temporary lockouts expire on their own, so they are evaluated on every check
+        return accountNonLocked && (lockedUntil == null || !LocalDateTime.now().isBefore(lockedUntil));
     }
 
     @Override
@@ -0,0 +1,72 @@
+package com.secureplatform.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.secureplatform.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * User Token Version Registry
+ * Tracks the current token version of each user so claims-based principals can be
+ * rejected once the account is disabled, locked, deleted or its claims change
+ *
+ * Versions are loaded with a single-column query and cached for
+ * {@code app.jwt.claims-principal.version-ttl}; mutations made on this node are
+ * applied immediately through {@link #update(Long, int)}, {@link #invalidate(Long)}
+ * and {@link #revoke(Long)}.
+ */
+@Component
+public class UserTokenVersionRegistry {
+
+    private static final int REVOKED = -1;
+
+    @Value("${app.jwt.claims-principal.version-ttl:60000}")
+    private long versionTtlInMs;
+
+    @Value("${app.jwt.claims-principal.version-cache-size:100000}")
+    private long maxSize;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Cache<Long, Integer> versions;
+
+    @PostConstruct
+    void init() {
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(versionTtlInMs, TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    public boolean isCurrent(Long userId, int tokenVersion) {
+        // Loaded outside Caffeine's compute: a loader runs under the map's bin lock, which
+        // pins the carrier thread for the whole query when called from a virtual thread
+        Integer current = versions.getIfPresent(userId);
+        if (current == null) {
+            current = userRepository.findActiveTokenVersion(userId).orElse(REVOKED);
+            versions.asMap().putIfAbsent(userId, current);
+        }
+        return current != REVOKED && tokenVersion >= current;
+    }
+
+    public void update(Long userId, int tokenVersion) {
+        versions.put(userId, tokenVersion);
+    }
+
+    /**
+     * Forgets the cached version so the next check reads it from the database.
+     */
+    public void invalidate(Long userId) {
+        versions.invalidate(userId);
+    }
+
+    public void revoke(Long userId) {
+        versions.put(userId, REVOKED);
+    }
+}
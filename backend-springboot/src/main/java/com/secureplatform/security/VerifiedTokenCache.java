@@ -0,0 +1,117 @@
+package com.secureplatform.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verified Token Cache
+ * Maps the digest of already-verified access tokens to their authenticated principal
+ *
+ * Entries live until the token expires or {@code app.jwt.cache.max-ttl} elapses,
+ * whichever comes first, so account changes are picked up within that bound even
+ * when nobody evicts the entry explicitly.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    @Value("${app.jwt.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.jwt.cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${app.jwt.cache.max-ttl:300000}")
+    private long maxTtlInMs;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Cache<String, VerifiedToken> cache;
+
+    @PostConstruct
+    void init() {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt.verified-tokens");
+    }
+
+    /**
+     * @return the principal and claims of an already-verified token, or null
+     */
+    public VerifiedToken get(String token) {
+        if (!enabled) {
+            return null;
+        }
+        return cache.getIfPresent(digest(token));
+    }
+
+    public void put(String token, JwtClaims claims, UserPrincipal principal) {
+        if (!enabled || claims.getExpiration() == null) {
+            return;
+        }
+        cache.put(digest(token), new VerifiedToken(principal, claims));
+    }
+
+    public void evict(String token) {
+        cache.invalidate(digest(token));
+    }
+
+    public void evictUser(Long userId) {
+        cache.asMap().values().removeIf(entry -> entry.principal().getId().equals(userId));
+    }
+
+    public void evictAll() {
+        cache.invalidateAll();
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+
+    /**
+     * Claims are kept with the principal so revocation can still be checked on a cache hit.
+     */
+    public record VerifiedToken(UserPrincipal principal, JwtClaims claims) {}
+
+    private class TokenExpiry implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken entry, long currentTime) {
+            long expiresAtMs = entry.claims().getExpiration().getTime();
+            long remaining = Math.min(expiresAtMs - System.currentTimeMillis(), maxTtlInMs);
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remaining, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken entry, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, entry, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
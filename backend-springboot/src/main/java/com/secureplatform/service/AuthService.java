@@ -5,13 +5,20 @@ import com.secureplatform.model.Role;
 import com.secureplatform.model.User;
 import com.secureplatform.repository.RoleRepository;
 import com.secureplatform.repository.UserRepository;
+import com.secureplatform.revocation.TokenRevocationList;
+import com.secureplatform.security.InvalidRefreshTokenException;
+import com.secureplatform.security.JwtClaims;
 import com.secureplatform.security.JwtTokenProvider;
+import com.secureplatform.security.PasswordHashService;
 import com.secureplatform.security.UserPrincipal;
+import com.secureplatform.security.VerifiedTokenCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -36,26 +43,60 @@ public class AuthService {
     @Autowired
     private RoleRepository roleRepository;
 
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private PasswordHashService passwordHashService;
+
+    @Autowired
+    private TokenRevocationList revocationList;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    /**
+     * Login pipeline: one fetch-joined user read (often served from the principal cache)
+     * and one bulk UPDATE for the login bookkeeping.
+     */
     public JwtResponse authenticateUser(String usernameOrEmail, String password) {
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(usernameOrEmail, password));
+        String ipAddress = "127.0.0.1"; // In real app, get from request
+        Authentication authentication;
+        try {
+            authentication = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(usernameOrEmail, password));
+        } catch (BadCredentialsException ex) {
+            recordFailedLogin(usernameOrEmail, ipAddress);
+            throw ex;
+        }
 
         SecurityContextHolder.getContext().setAuthentication(authentication);
 
         String jwt = tokenProvider.generateToken(authentication);
         UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
-        User user = userService.findById(userPrincipal.getId())
-                .orElseThrow(() -> new RuntimeException("User not found"));
 
         // Update last login
-        userService.updateLastLogin(user.getId(), "127.0.0.1"); // In real app, get from request
+        userService.updateLastLogin(userPrincipal.getId(), ipAddress);
 
-        List<String> roles = userPrincipal.getAuthorities().stream()
-                .map(item -> item.getAuthority())
-                .toList();
+        // Transparently move outdated hashes to the account's current scheme and cost
+        if (passwordHashService.needsRehash(userPrincipal.getUsername(), userPrincipal.getPassword())) {
+            userService.rehashPassword(userPrincipal.getId(), userPrincipal.getUsername(), password);
+        }
 
-        return new JwtResponse(jwt, userPrincipal.getId(), userPrincipal.getUsername(), 
-                             userPrincipal.getEmail(), roles);
+        return toResponse(jwt, refreshTokenService.issue(userPrincipal.getId()), userPrincipal);
+    }
+
+    private void recordFailedLogin(String usernameOrEmail, String ipAddress) {
+        try {
+            // Resolved through the principal cache the failed authentication just populated
+            UserPrincipal userPrincipal = (UserPrincipal) userDetailsService.loadUserByUsername(usernameOrEmail);
+            userService.recordFailedLogin(userPrincipal.getId(), ipAddress);
+        } catch (UsernameNotFoundException ex) {
+            // Unknown login: nothing to count against
+        }
     }
 
     public JwtResponse registerUser(String username, String email, String password, Set<String> strRoles) {
@@ -75,41 +116,80 @@ public class AuthService {
         String jwt = tokenProvider.generateToken(authentication);
 
         List<String> roles = user.getRoles().stream()
-                .map(role -> "ROLE_" + role.getName().name())
+                .map(role -> role.getName().name())
                 .toList();
 
-        return new JwtResponse(jwt, user.getId(), user.getUsername(), user.getEmail(), roles);
+        return new JwtResponse(jwt, refreshTokenService.issue(user.getId()), user.getId(),
+                user.getUsername(), user.getEmail(), roles);
     }
 
+    /**
+     * Exchanges a refresh token for a new access token and the refresh token replacing it.
+     * The principal normally comes from the principal cache, so a refresh costs the rotation's
+     * primary-key lookup, update and insert.
+     */
     public JwtResponse refreshToken(String refreshToken) {
-        if (tokenProvider.validateToken(refreshToken)) {
-            Long userId = tokenProvider.getUserIdFromToken(refreshToken);
-            User user = userService.findById(userId)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshToken);
 
-            String newJwt = tokenProvider.generateTokenFromUserId(userId);
+        UserPrincipal userPrincipal;
+        try {
+            userPrincipal = userDetailsService.loadUserById(rotation.userId());
+        } catch (UsernameNotFoundException ex) {
+            throw new InvalidRefreshTokenException("User not found");
+        }
+        if (!userPrincipal.isEnabled() || !userPrincipal.isAccountNonLocked()) {
+            refreshTokenService.revokeAllForUser(userPrincipal.getId());
+            throw new InvalidRefreshTokenException("Account is disabled or locked");
+        }
 
-            List<String> roles = user.getRoles().stream()
-                    .map(role -> "ROLE_" + role.getName().name())
-                    .toList();
+        return toResponse(tokenProvider.generateToken(userPrincipal), rotation.refreshToken(), userPrincipal);
+    }
 
-            return new JwtResponse(newJwt, user.getId(), user.getUsername(), user.getEmail(), roles);
+    private static JwtResponse toResponse(String accessToken, String refreshToken, UserPrincipal userPrincipal) {
+        List<String> roles = userPrincipal.getAuthorities().stream()
+                .map(item -> item.getAuthority())
+                .toList();
+
+        return new JwtResponse(accessToken, refreshToken, userPrincipal.getId(), userPrincipal.getUsername(),
+                userPrincipal.getEmail(), roles);
+    }
+
+    /**
+     * Revokes the presented access token and, if given, the refresh token family it came with;
+     * with {@code allSessions} every token of the user is revoked instead.
+     */
+    public void logout(String accessToken, String refreshToken, boolean allSessions) {
+        JwtClaims claims = accessToken != null ? tokenProvider.parseToken(accessToken) : null;
+        if (claims == null || revocationList.isRevoked(claims)) {
+            throw new RuntimeException("Invalid access token");
         }
 
-        throw new RuntimeException("Invalid refresh token");
+        if (allSessions) {
+            userService.revokeTokens(claims.getUserId());
+            return;
+        }
+
+        revocationList.revokeToken(claims);
+        verifiedTokenCache.evict(accessToken);
+        if (refreshToken != null) {
+            refreshTokenService.revokeFamily(refreshToken, claims.getUserId());
+        }
     }
 
     // Inner class for JWT response
     public static class JwtResponse {
         private String accessToken;
+        private String refreshToken;
         private String tokenType = "Bearer";
         private Long id;
         private String username;
         private String email;
         private List<String> roles;
 
-        public JwtResponse(String accessToken, Long id, String username, String email, List<String> roles) {
+        public JwtResponse(String accessToken, String refreshToken, Long id, String username, String email,
+                           List<String> roles) {
             this.accessToken = accessToken;
+            this.refreshToken = refreshToken;
             this.id = id;
             this.username = username;
             this.email = email;
@@ -118,6 +198,7 @@ public class AuthService {
 
         // Getters
         public String getAccessToken() { return accessToken; }
+        public String getRefreshToken() { return refreshToken; }
         public String getTokenType() { return tokenType; }
         public Long getId() { return id; }
         public String getUsername() { return username; }
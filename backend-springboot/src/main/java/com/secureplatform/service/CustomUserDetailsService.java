@@ -1,39 +1,90 @@
 package com.secureplatform.service;
 
+import com.secureplatform.cache.UserPrincipalCache;
 import com.secureplatform.model.User;
 import com.secureplatform.repository.UserRepository;
+import com.secureplatform.security.LockoutStore;
+import com.secureplatform.security.UserPrincipal;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
 
 /**
  * Custom User Details Service
  * Implements Spring Security's UserDetailsService for JWT authentication
+ *
+ * Principals are served from the UserPrincipalCache when possible; a transaction is
+ * only opened on a cache miss. Login lookups also apply locks held by the LockoutStore.
  */
 @Service
 public class CustomUserDetailsService implements UserDetailsService {
 
+    private static final Logger logger = LoggerFactory.getLogger(CustomUserDetailsService.class);
+
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserPrincipalCache principalCache;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private LockoutStore lockoutStore;
+
     @Override
-    @Transactional
     public UserDetails loadUserByUsername(String usernameOrEmail) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(usernameOrEmail)
-                .orElseGet(() -> userRepository.findByEmail(usernameOrEmail)
-                        .orElseThrow(() -> new UsernameNotFoundException("User not found with username or email: " + usernameOrEmail)));
+        UserPrincipal cached = principalCache.getByLogin(usernameOrEmail);
+        if (cached != null) {
+            return withStoredLock(cached);
+        }
+
+        UserPrincipal principal = transactionTemplate.execute(status -> {
+            // A username match wins over an email match
+            User user = userRepository.findByUsernameOrEmailWithRoles(usernameOrEmail).stream()
+                    .min(Comparator.comparing(candidate -> !usernameOrEmail.equals(candidate.getUsername())))
+                    .orElseThrow(() -> new UsernameNotFoundException("User not found with username or email: " + usernameOrEmail));
 
-        return com.secureplatform.security.UserPrincipal.create(user);
+            return UserPrincipal.create(user);
+        });
+        principalCache.put(principal);
+        return withStoredLock(principal);
     }
 
-    @Transactional
-    public UserDetails loadUserById(Long id) {
-        User user = userRepository.findById(id)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with id: " + id));
+    public UserPrincipal loadUserById(Long id) {
+        UserPrincipal cached = principalCache.getById(id);
+        if (cached != null) {
+            return cached;
+        }
+
+        UserPrincipal principal = transactionTemplate.execute(status -> {
+            User user = userRepository.findByIdWithRoles(id)
+                    .orElseThrow(() -> new UsernameNotFoundException("User not found with id: " + id));
+
+            return UserPrincipal.create(user);
+        });
+        principalCache.put(principal);
+        return principal;
+    }
 
-        return com.secureplatform.security.UserPrincipal.create(user);
+    private UserPrincipal withStoredLock(UserPrincipal principal) {
+        try {
+            LocalDateTime lockedUntil = lockoutStore.lockedUntil(principal.getId());
+            return lockedUntil != null ? principal.withLockedUntil(lockedUntil) : principal;
+        } catch (DataAccessException ex) {
+            // The lock written to the users table still applies
+            logger.warn("Lockout store unavailable: {}", ex.getMessage());
+            return principal;
+        }
     }
 }
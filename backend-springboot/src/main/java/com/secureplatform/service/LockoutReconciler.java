@@ -0,0 +1,83 @@
+package com.secureplatform.service;
+
+import com.secureplatform.security.LockoutStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lockout Reconciler
+ * Periodically copies failed-login counters and locks from the LockoutStore to
+ * users.failed_login_attempts and users.locked_until in JDBC batches
+ *
+ * With the Redis store every replica runs the reconciler, but each changed user is handed
+ * to exactly one of them. A lock in the table is never shortened here: locks are written
+ * through when they are taken and must survive a store that lost its data.
+ */
+@Component
+public class LockoutReconciler {
+
+    private static final Logger logger = LoggerFactory.getLogger(LockoutReconciler.class);
+
+    private static final String UPDATE_SQL =
+            "UPDATE users SET failed_login_attempts = ?, locked_until = COALESCE(?, locked_until) WHERE id = ?";
+
+    @Value("${app.security.lockout.reconcile-batch-size:500}")
+    private int batchSize;
+
+    @Autowired
+    private LockoutStore lockoutStore;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Counter reconciledRows;
+
+    @PostConstruct
+    void init() {
+        this.reconciledRows = Counter.builder("lockout.reconciled").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.lockout.reconcile-interval:30000}")
+    public void reconcile() {
+        try {
+            Map<Long, LockoutStore.LockoutState> changed;
+            do {
+                changed = lockoutStore.drainChanged(batchSize);
+                if (!changed.isEmpty()) {
+                    write(changed);
+                }
+            } while (changed.size() == batchSize);
+        } catch (DataAccessException ex) {
+            // Users already drained are picked up again on their next failed login
+            logger.error("Lockout reconciliation failed: {}", ex.getMessage());
+        }
+    }
+
+    private void write(Map<Long, LockoutStore.LockoutState> changed) {
+        List<Object[]> batch = new ArrayList<>(changed.size());
+        changed.forEach((userId, state) -> batch.add(new Object[] {
+                state.failedAttempts(),
+                state.lockedUntil() != null ? Timestamp.valueOf(state.lockedUntil()) : null,
+                userId
+        }));
+        jdbcTemplate.batchUpdate(UPDATE_SQL, batch);
+        reconciledRows.increment(batch.size());
+    }
+}
@@ -0,0 +1,203 @@
+package com.secureplatform.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Login Audit Write-Behind
+ * Buffers successful-login bookkeeping (last login time, IP, failed-attempt reset) and
+ * writes it to the database in JDBC batches
+ *
+ * Pending entries are coalesced per user id, so a user logging in repeatedly between
+ * flushes costs one row update. Flushes run on a schedule, when the buffer reaches
+ * {@code flush-threshold}, and on context shutdown. When the buffer is full the caller
+ * falls back to a synchronous write. Failed logins are not buffered: they flush the
+ * user's pending entry first so the lockout counter is applied in order.
+ */
+@Component
+public class LoginAuditWriteBehind {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginAuditWriteBehind.class);
+
+    // Older entries never overwrite a newer login written by a concurrent flush, and the reset
+    // never clears a lock that was set after the login (its locked_until lies past the login)
+    private static final String UPDATE_SQL =
+            "UPDATE users SET last_login_at = ?, last_login_ip = ?, updated_at = ?, " +
+            "failed_login_attempts = CASE WHEN locked_until IS NULL OR locked_until <= ? " +
+            "THEN 0 ELSE failed_login_attempts END, " +
+            "locked_until = CASE WHEN locked_until IS NULL OR locked_until <= ? " +
+            "THEN NULL ELSE locked_until END " +
+            "WHERE id = ? AND (last_login_at IS NULL OR last_login_at <= ?)";
+
+    @Value("${app.login-audit.write-behind.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.login-audit.write-behind.max-pending:10000}")
+    private int maxPending;
+
+    @Value("${app.login-audit.write-behind.flush-threshold:500}")
+    private int flushThreshold;
+
+    @Value("${app.login-audit.write-behind.batch-size:500}")
+    private int batchSize;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<Long, PendingLogin> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final ExecutorService flushExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "login-audit-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private Counter flushedRows;
+    private Counter rejected;
+    private Timer flushTimer;
+
+    @PostConstruct
+    void init() {
+        Gauge.builder("login.audit.pending", pending, Map::size).register(meterRegistry);
+        this.flushedRows = Counter.builder("login.audit.flushed").register(meterRegistry);
+        this.rejected = Counter.builder("login.audit.rejected")
+                .description("Logins written synchronously because the buffer was full")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("login.audit.flush").register(meterRegistry);
+    }
+
+    /**
+     * Queues a successful login.
+     *
+     * @return false if write-behind is disabled or the buffer is full; the caller must write synchronously
+     */
+    public boolean enqueue(Long userId, LocalDateTime loginAt, String ipAddress) {
+        if (!enabled) {
+            return false;
+        }
+        if (pending.size() >= maxPending && !pending.containsKey(userId)) {
+            rejected.increment();
+            return false;
+        }
+
+        pending.put(userId, new PendingLogin(userId, loginAt, ipAddress));
+        if (pending.size() >= flushThreshold && flushRequested.compareAndSet(false, true)) {
+            flushExecutor.execute(() -> {
+                flushRequested.set(false);
+                flush();
+            });
+        }
+        return true;
+    }
+
+    /**
+     * Writes the user's pending login, if any, on the caller's connection and transaction.
+     * Waits for a flush in progress, whose batch may hold the user's login, to finish first.
+     */
+    public void flushUser(Long userId) {
+        flushLock.lock();
+        try {
+            PendingLogin login = pending.remove(userId);
+            if (login != null) {
+                jdbcTemplate.update(UPDATE_SQL, login.parameters());
+                flushedRows.increment();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.login-audit.write-behind.flush-interval:1000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        flushLock.lock();
+        try {
+            flushTimer.record(this::drain);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void onShutdown() {
+        flush();
+        if (!pending.isEmpty()) {
+            logger.error("{} login audit entries could not be written on shutdown", pending.size());
+        }
+    }
+
+    @PreDestroy
+    void shutdownExecutor() {
+        flushExecutor.shutdown();
+    }
+
+    private void drain() {
+        List<PendingLogin> batch = new ArrayList<>(Math.min(batchSize, pending.size()));
+        for (Long userId : pending.keySet()) {
+            PendingLogin login = pending.remove(userId);
+            if (login == null) {
+                continue;
+            }
+            batch.add(login);
+            if (batch.size() >= batchSize) {
+                writeBatch(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            writeBatch(batch);
+        }
+    }
+
+    private void writeBatch(List<PendingLogin> batch) {
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, batch.stream().map(PendingLogin::parameters).toList());
+            flushedRows.increment(batch.size());
+        } catch (Exception ex) {
+            // Re-queue unless a newer login for the same user arrived meanwhile
+            logger.error("Login audit flush of {} rows failed: {}", batch.size(), ex.getMessage());
+            for (PendingLogin login : batch) {
+                pending.putIfAbsent(login.userId(), login);
+            }
+        }
+    }
+
+    private record PendingLogin(Long userId, LocalDateTime loginAt, String ipAddress) {
+
+        Object[] parameters() {
+            Timestamp timestamp = Timestamp.valueOf(loginAt);
+            return new Object[] { timestamp, ipAddress, timestamp, timestamp, timestamp, userId, timestamp };
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.secureplatform.service;
+
+import com.secureplatform.model.RefreshToken;
+import com.secureplatform.repository.RefreshTokenRepository;
+import com.secureplatform.security.InvalidRefreshTokenException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Refresh Token Service
+ * Issues opaque refresh tokens and rotates them on every exchange
+ *
+ * A token is 256 random bits; only its SHA-256 hash is stored, and it is found by that hash
+ * through the primary key. Each exchange marks the presented token used and issues its
+ * successor in the same family. Presenting a used token again means it was copied, so the
+ * whole family is deleted and the login it descends from has to be repeated. Expired rows
+ * are deleted in batches every app.jwt.refresh-token.purge-interval.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private static final String PURGE_SQL =
+            "DELETE FROM refresh_tokens WHERE token_hash IN " +
+            "(SELECT token_hash FROM refresh_tokens WHERE expires_at < ? LIMIT ?)";
+
+    private static final int TOKEN_BYTES = 32;
+
+    @Value("${app.jwt.refresh-expiration}")
+    private long refreshTokenExpirationInMs;
+
+    @Value("${app.jwt.refresh-token.purge-batch-size:1000}")
+    private int purgeBatchSize;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final SecureRandom random = new SecureRandom();
+
+    private Counter reuseDetected;
+    private Counter purgedRows;
+
+    @PostConstruct
+    void init() {
+        this.reuseDetected = Counter.builder("refresh-tokens.reuse-detected")
+                .description("Used refresh tokens presented again; each revokes its family")
+                .register(meterRegistry);
+        this.purgedRows = Counter.builder("refresh-tokens.purged").register(meterRegistry);
+    }
+
+    /**
+     * The successor of an exchanged token and the user it belongs to.
+     */
+    public record Rotation(Long userId, String refreshToken) {
+    }
+
+    /**
+     * Issues the first token of a new family, at login.
+     */
+    @Transactional
+    public String issue(Long userId) {
+        return issue(userId, UUID.randomUUID().toString(), LocalDateTime.now());
+    }
+
+    /**
+     * Exchanges a token for its successor. A token that was already used revokes its family;
+     * the deletion is kept although the exchange fails.
+     */
+    @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+    public Rotation rotate(String refreshToken) {
+        LocalDateTime now = LocalDateTime.now();
+        String tokenHash = hash(refreshToken);
+        RefreshToken current = refreshTokenRepository.findById(tokenHash)
+                .orElseThrow(() -> new InvalidRefreshTokenException("Invalid refresh token"));
+
+        if (current.isExpired(now)) {
+            throw new InvalidRefreshTokenException("Refresh token has expired");
+        }
+        // The conditional update settles concurrent exchanges of the same token: one wins
+        if (current.getUsedAt() != null || refreshTokenRepository.markUsed(tokenHash, now) == 0) {
+            int revoked = refreshTokenRepository.deleteFamily(current.getFamilyId());
+            reuseDetected.increment();
+            logger.warn("Refresh token reuse for user {}, revoked {} tokens of its family",
+                    current.getUserId(), revoked);
+            throw new InvalidRefreshTokenException("Refresh token was already used");
+        }
+
+        return new Rotation(current.getUserId(), issue(current.getUserId(), current.getFamilyId(), now));
+    }
+
+    /**
+     * Revokes the family of the given token, at logout; only if it belongs to the user.
+     */
+    @Transactional
+    public void revokeFamily(String refreshToken, Long userId) {
+        refreshTokenRepository.findById(hash(refreshToken))
+                .filter(token -> token.getUserId().equals(userId))
+                .ifPresent(token -> refreshTokenRepository.deleteFamily(token.getFamilyId()));
+    }
+
+    @Transactional
+    public void revokeAllForUser(Long userId) {
+        refreshTokenRepository.deleteAllForUser(userId);
+    }
+
+    /**
+     * Deletes expired tokens, batch by batch, so no single statement holds many row locks.
+     */
+    @Scheduled(fixedDelayString = "${app.jwt.refresh-token.purge-interval:3600000}",
+               initialDelayString = "${app.jwt.refresh-token.purge-interval:3600000}")
+    public void purgeExpired() {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        try {
+            int deleted;
+            do {
+                deleted = jdbcTemplate.update(PURGE_SQL, now, purgeBatchSize);
+                purgedRows.increment(deleted);
+            } while (deleted == purgeBatchSize);
+        } catch (DataAccessException ex) {
+            // Whatever is left is picked up by the next run
+            logger.error("Refresh token purge failed: {}", ex.getMessage());
+        }
+    }
+
+    private String issue(Long userId, String familyId, LocalDateTime now) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        refreshTokenRepository.save(new RefreshToken(hash(token), familyId, userId, now,
+                now.plus(Duration.ofMillis(refreshTokenExpirationInMs))));
+        return token;
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.secureplatform.service;
+
+import com.secureplatform.model.ERole;
+import com.secureplatform.model.Role;
+import com.secureplatform.repository.RoleRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Role Registry
+ * Immutable map from ERole to its Role row, loaded at startup so assigning roles never
+ * queries the database
+ *
+ * Missing role rows are created when the registry loads. The Role instances are shared
+ * and detached; they are only used as references when users are saved. Call
+ * {@link #refresh()} after changing role rows.
+ */
+@Component
+public class RoleRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(RoleRegistry.class);
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    private volatile Map<ERole, Role> roles;
+
+    @PostConstruct
+    public synchronized void refresh() {
+        Map<ERole, Role> loaded = new EnumMap<>(ERole.class);
+        roleRepository.findAll().forEach(role -> loaded.put(role.getName(), role));
+
+        for (ERole name : ERole.values()) {
+            if (!loaded.containsKey(name)) {
+                loaded.put(name, roleRepository.save(new Role(name, name.getDescription())));
+                logger.info("Created role {}", name);
+            }
+        }
+        this.roles = Collections.unmodifiableMap(loaded);
+    }
+
+    public Role role(ERole name) {
+        return roles.get(name);
+    }
+
+    public Set<Role> roles(Set<ERole> names) {
+        Set<Role> resolved = new HashSet<>(names.size() * 2);
+        for (ERole name : names) {
+            resolved.add(roles.get(name));
+        }
+        return resolved;
+    }
+}
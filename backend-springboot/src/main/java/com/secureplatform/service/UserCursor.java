@@ -0,0 +1,75 @@
+package com.secureplatform.service;
+
+import com.secureplatform.model.User;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * User Cursor
+ * Continuation token for keyset pagination of the user listing
+ *
+ * Holds the sort key of the last row of a page: its id, or its creation time and id. Clients
+ * receive it Base64url-encoded and should treat it as opaque.
+ */
+public record UserCursor(Sort sort, LocalDateTime createdAt, Long id) {
+
+    private static final String VERSION = "v1";
+    private static final String SEPARATOR = "|";
+
+    public enum Sort {
+        ID,
+        CREATED_AT
+    }
+
+    public static UserCursor first(Sort sort) {
+        return new UserCursor(sort, null, null);
+    }
+
+    public static UserCursor after(Sort sort, User user) {
+        return new UserCursor(sort, sort == Sort.CREATED_AT ? user.getCreatedAt() : null, user.getId());
+    }
+
+    public boolean isFirst() {
+        return id == null;
+    }
+
+    public String encode() {
+        String value = sort == Sort.CREATED_AT
+                ? String.join(SEPARATOR, VERSION, sort.name(), createdAt.toString(), id.toString())
+                : String.join(SEPARATOR, VERSION, sort.name(), id.toString());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}; an empty token starts from the first page.
+     */
+    public static UserCursor decode(String token, Sort sort) {
+        if (token == null || token.isEmpty()) {
+            return first(sort);
+        }
+
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|");
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid cursor", ex);
+        }
+        if (parts.length < 3 || !VERSION.equals(parts[0])) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (!sort.name().equals(parts[1])) {
+            throw new IllegalArgumentException("Cursor does not match the requested sort");
+        }
+
+        try {
+            return sort == Sort.CREATED_AT
+                    ? new UserCursor(sort, LocalDateTime.parse(parts[2]), Long.valueOf(parts[3]))
+                    : new UserCursor(sort, null, Long.valueOf(parts[2]));
+        } catch (NumberFormatException | IndexOutOfBoundsException | DateTimeParseException ex) {
+            throw new IllegalArgumentException("Invalid cursor", ex);
+        }
+    }
+}
@@ -0,0 +1,362 @@
+package com.secureplatform.service;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.secureplatform.model.User;
+import com.secureplatform.repository.UserRepository;
+import com.secureplatform.search.UserSearchIndex;
+import com.secureplatform.security.PasswordHashingUnavailableException;
+import com.secureplatform.security.PasswordHashService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * User Import Service
+ * Provisions users in bulk from an NDJSON (or JSON array) stream and reports one result per row
+ *
+ * Rows are read incrementally and processed in chunks of {@code app.users.import.chunk-size}:
+ * usernames and emails are checked against the database with one IN query each, passwords are
+ * hashed in parallel and the chunk is inserted in one transaction, where sequence ids let
+ * Hibernate batch the inserts. Hashing goes through the shared bounded hashing pool, with at
+ * most {@code app.users.import.hash-parallelism} import hashes in flight so logins keep the rest.
+ */
+@Service
+public class UserImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserImportService.class);
+
+    public static final String NDJSON = "application/x-ndjson";
+
+    public static final String CREATED = "created";
+    public static final String REJECTED = "rejected";
+    public static final String FAILED = "failed";
+
+    /**
+     * One user to provision; roles follow the same names as registration ("admin", "mod", "user").
+     */
+    public record ImportRow(
+            @NotBlank @Size(min = 3, max = 50) String username,
+            @NotBlank @Size(max = 100) @Email String email,
+            @NotBlank @Size(min = 8, max = 128) String password,
+            Set<String> roles) {
+    }
+
+    /**
+     * Outcome of one input row, numbered from 1 in input order.
+     */
+    public record ImportResult(long row, String username, String status, Long id, String error) {
+
+        static ImportResult created(long row, User user) {
+            return new ImportResult(row, user.getUsername(), CREATED, user.getId(), null);
+        }
+
+        static ImportResult rejected(long row, String username, String error) {
+            return new ImportResult(row, username, REJECTED, null, error);
+        }
+
+        static ImportResult failed(long row, String username, String error) {
+            return new ImportResult(row, username, FAILED, null, error);
+        }
+    }
+
+    private record PendingRow(long row, ImportRow user) {
+    }
+
+    @Value("${app.users.import.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.users.import.hash-parallelism:0}")
+    private int hashParallelism;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRegistry roleRegistry;
+
+    @Autowired
+    private PasswordHashService passwordHashService;
+
+    @Autowired
+    private UserSearchIndex userSearchIndex;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    private ExecutorService hashExecutor;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        int threads = hashParallelism > 0
+                ? hashParallelism
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadCount = new AtomicInteger();
+        hashExecutor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "user-import-hash-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        hashExecutor.shutdownNow();
+    }
+
+    /**
+     * Reads rows from {@code in} and writes one NDJSON result per row to {@code out}, flushing
+     * after every chunk. Neither stream is closed. Returns the number of users created.
+     */
+    public long importUsers(InputStream in, OutputStream out) throws IOException {
+        long startNanos = System.nanoTime();
+        ObjectWriter resultWriter = objectMapper.writerFor(ImportResult.class);
+        List<ImportResult> results = new ArrayList<>(chunkSize);
+        List<PendingRow> chunk = new ArrayList<>(chunkSize);
+        long rows = 0;
+        long created = 0;
+
+        try (MappingIterator<ImportRow> input = objectMapper.readerFor(ImportRow.class).readValues(in)) {
+            boolean more = true;
+            while (more) {
+                ImportRow row = null;
+                String parseError = null;
+                try {
+                    more = input.hasNextValue();
+                    if (more) {
+                        row = input.nextValue();
+                    }
+                } catch (JsonParseException ex) {
+                    // The stream cannot be resynchronized after malformed JSON
+                    parseError = "Malformed JSON: " + ex.getOriginalMessage();
+                    more = false;
+                } catch (JsonMappingException ex) {
+                    parseError = "Invalid row: " + ex.getOriginalMessage();
+                }
+
+                if (parseError != null) {
+                    results.add(ImportResult.rejected(++rows, null, parseError));
+                } else if (row != null) {
+                    chunk.add(new PendingRow(++rows, row));
+                }
+
+                if (chunk.size() >= chunkSize || (!more && !chunk.isEmpty())) {
+                    created += importChunk(chunk, results);
+                    chunk.clear();
+                }
+                if (results.size() >= chunkSize || !more) {
+                    // Chunk results are written together, sorted by row
+                    write(results, resultWriter, out);
+                    results.clear();
+                }
+            }
+        }
+
+        logger.info("Imported {} of {} users in {} ms", created, rows, (System.nanoTime() - startNanos) / 1_000_000);
+        return created;
+    }
+
+    private long importChunk(List<PendingRow> chunk, List<ImportResult> results) {
+        List<PendingRow> accepted = validate(chunk, results);
+        if (accepted.isEmpty()) {
+            return 0;
+        }
+
+        // Hash the chunk in parallel; a row whose hash cannot be computed is reported and skipped
+        List<CompletableFuture<String>> hashes = accepted.stream()
+                .map(pending -> CompletableFuture.supplyAsync(
+                        () -> passwordHashService.encode(pending.user().username(), pending.user().password()),
+                        hashExecutor))
+                .toList();
+        List<PendingRow> hashed = new ArrayList<>(accepted.size());
+        List<User> users = new ArrayList<>(accepted.size());
+        for (int i = 0; i < accepted.size(); i++) {
+            PendingRow pending = accepted.get(i);
+            try {
+                users.add(toUser(pending.user(), hashes.get(i).join()));
+                hashed.add(pending);
+            } catch (CompletionException ex) {
+                String error = ex.getCause() instanceof PasswordHashingUnavailableException
+                        ? ex.getCause().getMessage()
+                        : "Password hashing failed";
+                results.add(ImportResult.failed(pending.row(), pending.user().username(), error));
+            }
+        }
+        if (users.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            insert(users);
+        } catch (RuntimeException ex) {
+            if (!isConstraintViolation(ex)) {
+                throw ex;
+            }
+            // A concurrent registration took a name after the pre-check; retry row by row to find it
+            return insertOneByOne(hashed, users, results);
+        }
+
+        for (int i = 0; i < users.size(); i++) {
+            User user = users.get(i);
+            userSearchIndex.index(user.getId(), user.getUsername(), user.getEmail());
+            results.add(ImportResult.created(hashed.get(i).row(), user));
+        }
+        return users.size();
+    }
+
+    /**
+     * Rejects invalid rows, rows repeating a username or email seen earlier in the chunk,
+     * and rows whose username or email already exists, in input order.
+     */
+    private List<PendingRow> validate(List<PendingRow> chunk, List<ImportResult> results) {
+        List<PendingRow> valid = new ArrayList<>(chunk.size());
+        Set<String> usernames = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        for (PendingRow pending : chunk) {
+            ImportRow row = pending.user();
+            Set<ConstraintViolation<ImportRow>> violations = validator.validate(row);
+            if (!violations.isEmpty()) {
+                String error = violations.stream()
+                        .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining(", "));
+                results.add(ImportResult.rejected(pending.row(), row.username(), error));
+            } else if (usernames.contains(row.username())) {
+                results.add(ImportResult.rejected(pending.row(), row.username(), "Duplicate username in import"));
+            } else if (emails.contains(row.email())) {
+                // Checked before either name is recorded, so a rejected row claims neither
+                results.add(ImportResult.rejected(pending.row(), row.username(), "Duplicate email in import"));
+            } else {
+                usernames.add(row.username());
+                emails.add(row.email());
+                valid.add(pending);
+            }
+        }
+        if (valid.isEmpty()) {
+            return valid;
+        }
+
+        Set<String> takenUsernames = new HashSet<>(userRepository.findExistingUsernames(usernames));
+        Set<String> takenEmails = new HashSet<>(userRepository.findExistingEmails(emails));
+        if (takenUsernames.isEmpty() && takenEmails.isEmpty()) {
+            return valid;
+        }
+
+        List<PendingRow> accepted = new ArrayList<>(valid.size());
+        for (PendingRow pending : valid) {
+            if (takenUsernames.contains(pending.user().username())) {
+                results.add(ImportResult.rejected(pending.row(), pending.user().username(), "Username is already taken!"));
+            } else if (takenEmails.contains(pending.user().email())) {
+                results.add(ImportResult.rejected(pending.row(), pending.user().username(), "Email is already in use!"));
+            } else {
+                accepted.add(pending);
+            }
+        }
+        return accepted;
+    }
+
+    private User toUser(ImportRow row, String passwordHash) {
+        User user = new User(row.username(), row.email(), passwordHash);
+        user.setRoles(roleRegistry.roles(UserService.rolesFor(row.roles())));
+        return user;
+    }
+
+    private void insert(List<User> users) {
+        transactionTemplate.executeWithoutResult(status -> {
+            users.forEach(entityManager::persist);
+            entityManager.flush();
+            entityManager.clear();
+        });
+    }
+
+    private long insertOneByOne(List<PendingRow> rows, List<User> users, List<ImportResult> results) {
+        long created = 0;
+        for (int i = 0; i < users.size(); i++) {
+            User user = users.get(i);
+            // Ids assigned by the rolled-back batch are discarded
+            user.setId(null);
+            try {
+                insert(List.of(user));
+                userSearchIndex.index(user.getId(), user.getUsername(), user.getEmail());
+                results.add(ImportResult.created(rows.get(i).row(), user));
+                created++;
+            } catch (RuntimeException ex) {
+                if (!isConstraintViolation(ex)) {
+                    throw ex;
+                }
+                results.add(ImportResult.rejected(rows.get(i).row(), user.getUsername(),
+                        "Username or email is already in use!"));
+            }
+        }
+        return created;
+    }
+
+    // Flushing inside the template surfaces Hibernate's exception untranslated, a failed commit a Spring one
+    private static boolean isConstraintViolation(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DataIntegrityViolationException
+                    || cause instanceof org.hibernate.exception.ConstraintViolationException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void write(List<ImportResult> results, ObjectWriter resultWriter, OutputStream out) throws IOException {
+        if (results.isEmpty()) {
+            return;
+        }
+        results.sort((a, b) -> Long.compare(a.row(), b.row()));
+        StringBuilder lines = new StringBuilder();
+        for (ImportResult result : results) {
+            lines.append(resultWriter.writeValueAsString(result)).append('\n');
+        }
+        out.write(lines.toString().getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+}
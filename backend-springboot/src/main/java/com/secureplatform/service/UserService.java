@@ -1,18 +1,37 @@
 package com.secureplatform.service;
 
+import com.secureplatform.cache.UserPrincipalCache;
 import com.secureplatform.model.ERole;
-import com.secureplatform.model.Role;
 import com.secureplatform.model.User;
-import com.secureplatform.repository.RoleRepository;
 import com.secureplatform.repository.UserRepository;
+import com.secureplatform.revocation.TokenRevocationList;
+import com.secureplatform.search.UserSearchCursor;
+import com.secureplatform.search.UserSearchHit;
+import com.secureplatform.search.UserSearchIndex;
+import com.secureplatform.security.LockoutStore;
+import com.secureplatform.security.PasswordHashService;
+import com.secureplatform.security.UserTokenVersionRegistry;
+import com.secureplatform.security.VerifiedTokenCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.HashSet;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * User Service
@@ -21,14 +40,52 @@ import java.util.Set;
 @Service
 public class UserService {
 
+    private static final Logger logger = LoggerFactory.getLogger(UserService.class);
+
+    @Value("${app.security.lockout.max-attempts:5}")
+    private int maxFailedAttempts;
+
+    @Value("${app.security.lockout.failure-window-ms:1800000}")
+    private long failureWindowInMs;
+
+    @Value("${app.security.lockout.duration-ms:1800000}")
+    private long lockDurationInMs;
+
     @Autowired
     private UserRepository userRepository;
 
     @Autowired
-    private RoleRepository roleRepository;
+    private RoleRegistry roleRegistry;
+
+    @Autowired
+    private PasswordHashService passwordHashService;
+
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private UserTokenVersionRegistry tokenVersionRegistry;
+
+    @Autowired
+    private TokenRevocationList revocationList;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private UserPrincipalCache principalCache;
+
+    @Autowired
+    private LoginAuditWriteBehind loginAuditWriteBehind;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private LockoutStore lockoutStore;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private UserSearchIndex userSearchIndex;
 
     public User createUser(String username, String email, String password, Set<String> roleNames) {
         if (userRepository.existsByUsername(username)) {
@@ -40,37 +97,30 @@ public class UserService {
         }
 
         User user = new User(username, email, password);
-        user.setPassword(passwordEncoder.encode(password));
+        user.setPassword(passwordHashService.encode(username, password));
 
-        Set<Role> roles = new HashSet<>();
-        
+        user.setRoles(roleRegistry.roles(rolesFor(roleNames)));
+        User saved = userRepository.save(user);
+        userSearchIndex.index(saved.getId(), saved.getUsername(), saved.getEmail());
+        return saved;
+    }
+
+    /**
+     * Maps requested role names to roles: "admin", "mod", anything else (or nothing) to the user role.
+     */
+    public static Set<ERole> rolesFor(Set<String> roleNames) {
         if (roleNames == null || roleNames.isEmpty()) {
-            Role userRole = roleRepository.findByName(ERole.ROLE_USER)
-                    .orElseThrow(() -> new RuntimeException("Error: Role is not found."));
-            roles.add(userRole);
-        } else {
-            roleNames.forEach(roleName -> {
-                switch (roleName.toLowerCase()) {
-                    case "admin":
-                        Role adminRole = roleRepository.findByName(ERole.ROLE_ADMIN)
-                                .orElseThrow(() -> new RuntimeException("Error: Role is not found."));
-                        roles.add(adminRole);
-                        break;
-                    case "mod":
-                        Role modRole = roleRepository.findByName(ERole.ROLE_MODERATOR)
-                                .orElseThrow(() -> new RuntimeException("Error: Role is not found."));
-                        roles.add(modRole);
-                        break;
-                    default:
-                        Role userRole = roleRepository.findByName(ERole.ROLE_USER)
-                                .orElseThrow(() -> new RuntimeException("Error: Role is not found."));
-                        roles.add(userRole);
-                }
-            });
+            return Set.of(ERole.ROLE_USER);
         }
-
-        user.setRoles(roles);
-        return userRepository.save(user);
+        Set<ERole> roles = EnumSet.noneOf(ERole.class);
+        for (String roleName : roleNames) {
+            switch (roleName.toLowerCase()) {
+                case "admin" -> roles.add(ERole.ROLE_ADMIN);
+                case "mod" -> roles.add(ERole.ROLE_MODERATOR);
+                default -> roles.add(ERole.ROLE_USER);
+            }
+        }
+        return roles;
     }
 
     public Optional<User> findByUsername(String username) {
@@ -99,38 +149,186 @@ public class UserService {
 
         user.setUsername(username);
         user.setEmail(email);
-        return userRepository.save(user);
+        user.incrementTokenVersion();
+        User saved = userRepository.save(user);
+        userSearchIndex.index(userId, saved.getUsername(), saved.getEmail());
+        tokenVersionRegistry.update(userId, saved.getTokenVersion());
+        invalidateCachedPrincipal(userId);
+        return saved;
     }
 
     public void deleteUser(Long userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         userRepository.delete(user);
+        userSearchIndex.remove(userId);
+        tokenVersionRegistry.revoke(userId);
+        // Rejected on every replica from the next request, without waiting for a failed lookup
+        revocationList.revokeUser(userId);
+        invalidateCachedPrincipal(userId);
+    }
+
+    /**
+     * Revokes every access and refresh token issued to the user so far, on all replicas.
+     */
+    public void revokeTokens(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new RuntimeException("User not found");
+        }
+        revocationList.revokeUser(userId);
+        refreshTokenService.revokeAllForUser(userId);
+        verifiedTokenCache.evictUser(userId);
     }
 
+    @Transactional
     public void updateLastLogin(Long userId, String ipAddress) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        
-        user.setLastLoginAt(LocalDateTime.now());
-        user.setLastLoginIp(ipAddress);
-        user.resetFailedAttempts();
-        userRepository.save(user);
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            lockoutStore.clear(userId);
+        } catch (DataAccessException ex) {
+            logger.warn("Could not clear lockout state of user {}: {}", userId, ex.getMessage());
+        }
+
+        if (loginAuditWriteBehind.enqueue(userId, now, ipAddress)) {
+            return;
+        }
+        if (userRepository.recordSuccessfulLogin(userId, now, ipAddress) == 0) {
+            throw new RuntimeException("User not found");
+        }
     }
 
+    /**
+     * Replaces a stored hash after a successful login proved the raw password.
+     */
+    @Transactional
+    public void rehashPassword(Long userId, String username, String rawPassword) {
+        userRepository.updatePassword(userId, passwordHashService.encode(username, rawPassword));
+        principalCache.evict(userId);
+    }
+
+    /**
+     * Counts a failed login in the LockoutStore. Only the failure that locks the account is
+     * written to the database, where it also revokes the user's claims-based tokens; the
+     * counters are copied over later by the LockoutReconciler.
+     */
     public void recordFailedLogin(Long userId, String ipAddress) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        
-        user.incrementFailedAttempts();
-        user.setLastLoginIp(ipAddress);
-        
-        // Lock account after 5 failed attempts for 30 minutes
-        if (user.getFailedLoginAttempts() >= 5) {
-            user.setLockedUntil(LocalDateTime.now().plusMinutes(30));
-        }
-        
-        userRepository.save(user);
+        LockoutStore.LockoutState state;
+        try {
+            state = lockoutStore.recordFailure(userId, maxFailedAttempts,
+                    Duration.ofMillis(failureWindowInMs), Duration.ofMillis(lockDurationInMs));
+        } catch (DataAccessException ex) {
+            logger.warn("Lockout store unavailable, counting failed login in the database: {}", ex.getMessage());
+            transactionTemplate.executeWithoutResult(status -> recordFailedLoginInDatabase(userId, ipAddress));
+            // After commit, so a concurrent load cannot cache the pre-failure row again
+            tokenVersionRegistry.invalidate(userId);
+            invalidateCachedPrincipal(userId);
+            return;
+        }
+
+        if (state.newlyLocked()) {
+            transactionTemplate.executeWithoutResult(status -> {
+                // A buffered successful login would otherwise clear the lock when flushed
+                loginAuditWriteBehind.flushUser(userId);
+                userRepository.lockUser(userId, state.failedAttempts(), state.lockedUntil());
+            });
+            tokenVersionRegistry.invalidate(userId);
+            invalidateCachedPrincipal(userId);
+        }
+    }
+
+    private void recordFailedLoginInDatabase(Long userId, String ipAddress) {
+        // Apply a buffered successful login (and its counter reset) before counting this failure
+        loginAuditWriteBehind.flushUser(userId);
+
+        LocalDateTime lockUntil = LocalDateTime.now().plus(Duration.ofMillis(lockDurationInMs));
+        if (userRepository.recordFailedLogin(userId, ipAddress, maxFailedAttempts, lockUntil) == 0) {
+            throw new RuntimeException("User not found");
+        }
+    }
+
+    /**
+     * One page of the keyset-paginated user listing.
+     *
+     * @param next cursor of the following page, or null on the last page
+     */
+    public record UserKeysetPage(List<User> users, UserCursor next) {
+    }
+
+    /**
+     * Returns up to {@code size} users after the cursor. One extra row is read to tell
+     * whether another page follows, so no count query is needed.
+     */
+    @Transactional(readOnly = true)
+    public UserKeysetPage findUsersAfter(UserCursor cursor, int size) {
+        Limit limit = Limit.of(size + 1);
+        List<User> users;
+        if (cursor.sort() == UserCursor.Sort.CREATED_AT) {
+            users = cursor.isFirst()
+                    ? userRepository.findAllByOrderByCreatedAtAscIdAsc(limit)
+                    : userRepository.findPageAfterCreatedAt(cursor.createdAt(), cursor.id(), limit);
+        } else {
+            users = cursor.isFirst()
+                    ? userRepository.findAllByOrderByIdAsc(limit)
+                    : userRepository.findPageAfterId(cursor.id(), limit);
+        }
+
+        if (users.size() <= size) {
+            return new UserKeysetPage(users, null);
+        }
+        List<User> page = users.subList(0, size);
+        return new UserKeysetPage(page, UserCursor.after(cursor.sort(), page.get(size - 1)));
+    }
+
+    /**
+     * One page of ranked search results.
+     *
+     * @param next cursor of the following page, or null on the last page
+     */
+    public record UserSearchPage(List<User> users, UserSearchCursor next) {
+    }
+
+    /**
+     * Returns up to {@code size} users matching the term, best match first, ranked after the cursor.
+     * The index supplies ranked ids; the users are then loaded with one primary-key query.
+     */
+    @Transactional(readOnly = true)
+    public UserSearchPage searchUsers(String term, UserSearchCursor after, int size) {
+        return loadPage(userSearchIndex.search(term, after, size + 1), size);
+    }
+
+    /**
+     * Offset variant of {@link #searchUsers(String, UserSearchCursor, int)}: the index walks past
+     * the first {@code offset} hits, but only the users of the page are loaded.
+     */
+    @Transactional(readOnly = true)
+    public UserSearchPage searchUsers(String term, int offset, int size) {
+        List<UserSearchHit> hits = userSearchIndex.search(term, UserSearchCursor.FIRST, offset + size + 1);
+        return loadPage(hits.subList(Math.min(offset, hits.size()), hits.size()), size);
+    }
+
+    private UserSearchPage loadPage(List<UserSearchHit> hits, int size) {
+        UserSearchCursor next = null;
+        if (hits.size() > size) {
+            hits = hits.subList(0, size);
+            next = UserSearchCursor.after(hits.get(size - 1));
+        }
+
+        Map<Long, User> usersById = userRepository.findAllById(hits.stream().map(UserSearchHit::id).toList())
+                .stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        List<User> users = hits.stream()
+                .map(hit -> usersById.get(hit.id()))
+                .filter(Objects::nonNull)
+                .toList();
+        return new UserSearchPage(users, next);
+    }
+
+    /**
+     * Drops every cached view of the user so lockout, disable and role changes apply on the next request.
+     */
+    public void invalidateCachedPrincipal(Long userId) {
+        principalCache.evict(userId);
+        verifiedTokenCache.evictUser(userId);
     }
 
     public boolean isAccountLocked(User user) {
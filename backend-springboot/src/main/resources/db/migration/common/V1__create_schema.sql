@@ -0,0 +1,42 @@
+-- Base schema, as mapped by the User and Role entities.
+-- Databases created earlier by ddl-auto=update are baselined at this version (spring.flyway.baseline-on-migrate).
+
+CREATE SEQUENCE users_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE roles (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    name        VARCHAR(255),
+    description VARCHAR(500),
+    created_at  TIMESTAMP(6),
+    CONSTRAINT pk_roles PRIMARY KEY (id),
+    CONSTRAINT uk_roles_name UNIQUE (name)
+);
+
+CREATE TABLE users (
+    id                      BIGINT NOT NULL,
+    username                VARCHAR(255),
+    email                   VARCHAR(255),
+    password                VARCHAR(255),
+    enabled                 BOOLEAN NOT NULL,
+    account_non_expired     BOOLEAN NOT NULL,
+    account_non_locked      BOOLEAN NOT NULL,
+    credentials_non_expired BOOLEAN NOT NULL,
+    last_login_at           TIMESTAMP(6),
+    last_login_ip           VARCHAR(255),
+    failed_login_attempts   INTEGER,
+    locked_until            TIMESTAMP(6),
+    token_version           INTEGER,
+    created_at              TIMESTAMP(6),
+    updated_at              TIMESTAMP(6),
+    CONSTRAINT pk_users PRIMARY KEY (id),
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE user_roles (
+    user_id BIGINT NOT NULL,
+    role_id BIGINT NOT NULL,
+    CONSTRAINT pk_user_roles PRIMARY KEY (role_id, user_id),
+    CONSTRAINT fk_user_roles_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_user_roles_role FOREIGN KEY (role_id) REFERENCES roles (id)
+);
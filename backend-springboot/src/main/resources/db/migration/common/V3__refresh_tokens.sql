@@ -0,0 +1,23 @@
+-- Refresh tokens: opaque random tokens stored only as their SHA-256 hash, rotated on every use.
+-- Tokens descending from one login share a family; replaying a used token deletes the family.
+-- Rows are looked up by primary key; expired rows are purged in batches by RefreshTokenService.
+
+CREATE TABLE refresh_tokens (
+    token_hash VARCHAR(64)  NOT NULL,
+    family_id  VARCHAR(36)  NOT NULL,
+    user_id    BIGINT       NOT NULL,
+    issued_at  TIMESTAMP(6) NOT NULL,
+    expires_at TIMESTAMP(6) NOT NULL,
+    used_at    TIMESTAMP(6),
+    CONSTRAINT pk_refresh_tokens PRIMARY KEY (token_hash),
+    CONSTRAINT fk_refresh_tokens_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+);
+
+-- Family revocation on reuse and logout
+CREATE INDEX idx_refresh_tokens_family_id ON refresh_tokens (family_id);
+
+-- Revoke-all for a user, and the cascade when a user is deleted
+CREATE INDEX idx_refresh_tokens_user_id ON refresh_tokens (user_id);
+
+-- Purge of expired rows
+CREATE INDEX idx_refresh_tokens_expires_at ON refresh_tokens (expires_at);
@@ -0,0 +1,16 @@
+-- Asymmetric access token signing keys, shared by all replicas (see JwtKeyRing).
+-- private_key is PKCS#8 wrapped with AES-GCM under a key derived from app.jwt.secret;
+-- public_key is the X.509 SubjectPublicKeyInfo published in the JWKS. Both base64.
+-- A key signs from activates_at until a newer key activates, and is kept for verification
+-- until expires_at (unset while it is the newest key).
+
+CREATE TABLE jwt_signing_keys (
+    kid          VARCHAR(64)   NOT NULL,
+    algorithm    VARCHAR(16)   NOT NULL,
+    public_key   VARCHAR(1024) NOT NULL,
+    private_key  VARCHAR(1024) NOT NULL,
+    created_at   TIMESTAMP(6)  NOT NULL,
+    activates_at TIMESTAMP(6)  NOT NULL,
+    expires_at   TIMESTAMP(6),
+    CONSTRAINT pk_jwt_signing_keys PRIMARY KEY (kid)
+);
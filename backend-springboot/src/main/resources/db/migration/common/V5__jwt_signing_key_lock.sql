@@ -0,0 +1,9 @@
+-- Single row locked with SELECT ... FOR UPDATE by the replica rotating the JWT signing keys
+-- (see JwtKeyRing), so replicas that find a rotation due at the same time add one key.
+
+CREATE TABLE jwt_signing_key_lock (
+    id INTEGER NOT NULL,
+    CONSTRAINT pk_jwt_signing_key_lock PRIMARY KEY (id)
+);
+
+INSERT INTO jwt_signing_key_lock (id) VALUES (1);
@@ -0,0 +1,8 @@
+-- Brings databases created by ddl-auto=update before the migrations existed up to the mapped
+-- users schema. They are baselined at V1, so V1's token_version column and users_seq sequence
+-- were never applied to them. On databases created by V1 the statements change nothing.
+
+ALTER TABLE users ADD COLUMN IF NOT EXISTS token_version INTEGER;
+UPDATE users SET token_version = 0 WHERE token_version IS NULL;
+
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
@@ -0,0 +1,17 @@
+-- Indexes matched to the UserRepository queries. H2 has no partial, covering or expression
+-- indexes, so these are the plain equivalents of the PostgreSQL ones; search runs in memory.
+
+-- Keyset pagination by creation time: findPageAfterCreatedAt
+CREATE INDEX idx_users_created_at_id ON users (created_at, id);
+
+-- Roles of a user (listings, findByIdWithRoles); the primary key leads with role_id
+CREATE INDEX idx_user_roles_user_id ON user_roles (user_id, role_id);
+
+-- Active listings and exports: WHERE enabled ORDER BY id
+CREATE INDEX idx_users_active ON users (enabled, id);
+
+-- Last-login export: ORDER BY last_login_at DESC, id
+CREATE INDEX idx_users_last_login_at ON users (last_login_at DESC, id);
+
+-- Security listing and export: WHERE failed_login_attempts > 3 ORDER BY failed_login_attempts DESC, id
+CREATE INDEX idx_users_failed_logins ON users (failed_login_attempts DESC, id);
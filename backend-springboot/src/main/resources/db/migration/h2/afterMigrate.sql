@@ -0,0 +1,8 @@
+-- Flyway callback, run after every migrate: the H2 counterpart of postgresql/afterMigrate.sql.
+-- Keeps users_seq past every existing id, so a file database baselined from ddl-auto=update
+-- never hands out an identity-assigned id again.
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE users_seq RESTART WITH SELECT GREATEST(
+    (SELECT COALESCE(MAX(id), 0) + 50 FROM users),
+    (SELECT base_value FROM information_schema.sequences
+     WHERE sequence_schema = SCHEMA() AND sequence_name = 'USERS_SEQ'));
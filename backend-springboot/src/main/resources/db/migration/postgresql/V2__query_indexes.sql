@@ -0,0 +1,37 @@
+-- Indexes matched to the UserRepository and user search queries.
+-- IF NOT EXISTS keeps this safe on baselined databases that already have some of them.
+
+-- Keyset pagination by creation time: findPageAfterCreatedAt
+CREATE INDEX IF NOT EXISTS idx_users_created_at_id ON users (created_at, id);
+
+-- Roles of a user (listings, findByIdWithRoles); the primary key leads with role_id
+CREATE INDEX IF NOT EXISTS idx_user_roles_user_id ON user_roles (user_id, role_id);
+
+-- Active listings and exports: WHERE enabled ORDER BY id, covering the listing columns
+CREATE INDEX IF NOT EXISTS idx_users_active ON users (id)
+    INCLUDE (username, email, enabled, last_login_at, failed_login_attempts, locked_until, created_at)
+    WHERE enabled;
+
+-- Last-login export: WHERE last_login_at IS NOT NULL ORDER BY last_login_at DESC, id
+CREATE INDEX IF NOT EXISTS idx_users_last_login_at ON users (last_login_at DESC, id)
+    WHERE last_login_at IS NOT NULL;
+
+-- Security listing and export: WHERE failed_login_attempts > 3 ORDER BY failed_login_attempts DESC, id
+CREATE INDEX IF NOT EXISTS idx_users_failed_logins ON users (failed_login_attempts DESC, id)
+    WHERE failed_login_attempts > 3;
+
+-- User search (PostgresUserSearchIndex): trigram GIN indexes for substring matches,
+-- text_pattern_ops B-trees for exact and prefix matches on the lower-cased columns
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_users_username_trgm ON users USING gin (lower(username) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_users_email_trgm ON users USING gin (lower(email) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_users_username_pattern ON users (lower(username) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_users_email_pattern ON users (lower(email) text_pattern_ops);
+
+-- Baselined databases may predate the users_seq generator or hold ids assigned by an identity
+-- column; move the sequence past every existing id (Hibernate reserves 50 ids per value)
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE users_seq INCREMENT BY 50;
+SELECT setval('users_seq', GREATEST(MAX(id) + 50, (SELECT last_value FROM users_seq)))
+FROM users
+HAVING MAX(id) IS NOT NULL;
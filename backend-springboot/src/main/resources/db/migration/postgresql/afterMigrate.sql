@@ -0,0 +1,7 @@
+-- Flyway callback, run after every migrate rather than once per version: keeps users_seq past
+-- every existing id whatever version a database was baselined or restored at, so the pooled
+-- generator (50 ids per value, see User.ID_ALLOCATION_SIZE) never hands out an id in use.
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+SELECT setval('users_seq', GREATEST(MAX(id) + 50, (SELECT last_value FROM users_seq)))
+FROM users
+HAVING MAX(id) IS NOT NULL;
@@ -0,0 +1,25 @@
+-- Sliding-window rate limit over several windows in one round trip.
+-- The count of a window is estimated from two fixed windows: the current counter plus the
+-- previous counter weighted by how much of the previous window the sliding window still covers.
+--
+-- KEYS: for each limit, the current and the previous fixed-window counter
+-- ARGV: for each limit, its permits, the previous window's weight, the window length in ms
+--       and the ms left in the current window
+-- Returns 0 when the request was counted, otherwise the ms to wait before retrying.
+local limits = #KEYS / 2
+
+for i = 0, limits - 1 do
+    local current = tonumber(redis.call('GET', KEYS[2 * i + 1]) or '0')
+    local previous = tonumber(redis.call('GET', KEYS[2 * i + 2]) or '0')
+    local permits = tonumber(ARGV[4 * i + 1])
+    local weight = tonumber(ARGV[4 * i + 2])
+    if previous * weight + current + 1 > permits then
+        return math.max(1, tonumber(ARGV[4 * i + 4]))
+    end
+end
+
+for i = 0, limits - 1 do
+    redis.call('INCR', KEYS[2 * i + 1])
+    redis.call('PEXPIRE', KEYS[2 * i + 1], 2 * tonumber(ARGV[4 * i + 3]))
+end
+return 0
@@ -0,0 +1,30 @@
+-- Counts a failed login in a sliding window and locks the user once the window is full.
+--
+-- KEYS[1] failure log (sorted set scored by time), KEYS[2] lock (value: expiry in epoch ms),
+-- KEYS[3] set of users changed since the last reconciliation
+-- ARGV[1] now in epoch ms, ARGV[2] window ms, ARGV[3] max attempts, ARGV[4] lock ms,
+-- ARGV[5] user id, ARGV[6] unique member for this failure
+-- Returns { failed attempts in the window, lock expiry in epoch ms or 0, 1 if this call locked }
+local now = tonumber(ARGV[1])
+local window = tonumber(ARGV[2])
+local maxAttempts = tonumber(ARGV[3])
+
+redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', now - window)
+redis.call('ZADD', KEYS[1], now, ARGV[6])
+-- Only the newest maxAttempts failures matter, which also bounds the log under attack
+redis.call('ZREMRANGEBYRANK', KEYS[1], 0, -(maxAttempts + 1))
+redis.call('PEXPIRE', KEYS[1], window)
+local attempts = redis.call('ZCARD', KEYS[1])
+redis.call('SADD', KEYS[3], ARGV[5])
+
+local lockedUntil = tonumber(redis.call('GET', KEYS[2]) or '0')
+local newlyLocked = 0
+if lockedUntil <= now and attempts >= maxAttempts then
+    lockedUntil = now + tonumber(ARGV[4])
+    redis.call('SET', KEYS[2], string.format('%d', lockedUntil), 'PX', ARGV[4])
+    newlyLocked = 1
+end
+if lockedUntil <= now then
+    lockedUntil = 0
+end
+return { attempts, lockedUntil, newlyLocked }
@@ -0,0 +1,121 @@
+package com.secureplatform.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.secureplatform.model.ERole;
+import com.secureplatform.security.UserPrincipal;
+import com.secureplatform.support.EmbeddedRedis;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RedisUserPrincipalCacheTest {
+
+    private static EmbeddedRedis redis;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private RedisUserPrincipalCache cache;
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        redis = EmbeddedRedis.start();
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        redis.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redis.flush();
+        cache = newCache();
+    }
+
+    private RedisUserPrincipalCache newCache() {
+        return new RedisUserPrincipalCache(redis.template(), objectMapper, Duration.ofMinutes(5),
+                new SimpleMeterRegistry());
+    }
+
+    private static UserPrincipal principal(String username, String email) {
+        return new UserPrincipal(7L, username, email, "{bcrypt}hash",
+                Set.of(ERole.ROLE_USER, ERole.ROLE_MODERATOR), true, true, true, true, 3,
+                LocalDateTime.of(2030, 1, 1, 12, 0));
+    }
+
+    @Test
+    void roundTripsEveryFieldOfThePrincipal() {
+        cache.put(principal("alice", "alice@example.com"));
+
+        UserPrincipal cached = cache.getById(7L);
+
+        assertThat(cached.getUsername()).isEqualTo("alice");
+        assertThat(cached.getEmail()).isEqualTo("alice@example.com");
+        assertThat(cached.getPassword()).isEqualTo("{bcrypt}hash");
+        assertThat(cached.getRoles()).containsExactlyInAnyOrder(ERole.ROLE_USER, ERole.ROLE_MODERATOR);
+        assertThat(cached.getTokenVersion()).isEqualTo(3);
+        assertThat(cached.getLockedUntil()).isEqualTo(LocalDateTime.of(2030, 1, 1, 12, 0));
+        assertThat(cached.isAdministrativelyLocked()).isFalse();
+    }
+
+    @Test
+    void findsPrincipalByUsernameAndByEmail() {
+        cache.put(principal("alice", "alice@example.com"));
+
+        assertThat(cache.getByLogin("alice").getId()).isEqualTo(7L);
+        assertThat(cache.getByLogin("alice@example.com").getId()).isEqualTo(7L);
+        assertThat(cache.getByLogin("bob")).isNull();
+    }
+
+    @Test
+    void ignoresLoginMappingLeftBehindByRename() {
+        cache.put(principal("alice", "alice@example.com"));
+        cache.put(principal("alicia", "alice@example.com"));
+
+        assertThat(cache.getByLogin("alice")).isNull();
+        assertThat(cache.getByLogin("alicia").getId()).isEqualTo(7L);
+    }
+
+    @Test
+    void evictionOnOneNodeIsSeenByAnother() {
+        RedisUserPrincipalCache otherNode = newCache();
+        cache.put(principal("alice", "alice@example.com"));
+        assertThat(otherNode.getById(7L)).isNotNull();
+
+        otherNode.evict(7L);
+
+        assertThat(cache.getById(7L)).isNull();
+        assertThat(cache.getByLogin("alice")).isNull();
+    }
+
+    @Test
+    void evictAllRemovesOnlyPrincipalKeys() {
+        redis.template().opsForValue().set("unrelated", "kept");
+        cache.put(principal("alice", "alice@example.com"));
+
+        cache.evictAll();
+
+        assertThat(cache.getById(7L)).isNull();
+        assertThat(redis.template().keys("user-principal:*")).isEmpty();
+        assertThat(redis.template().opsForValue().get("unrelated")).isEqualTo("kept");
+    }
+
+    @Test
+    void entriesExpireWithTheConfiguredTtl() {
+        cache.put(principal("alice", "alice@example.com"));
+
+        Long ttl = redis.template().getExpire("user-principal:id:7");
+
+        assertThat(ttl).isBetween(1L, 300L);
+    }
+}
@@ -3,6 +3,7 @@ package com.secureplatform.config;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Primary;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.core.userdetails.User;
@@ -32,7 +33,7 @@ public class TestSecurityConfig {
     private static class TestUserDetailsService implements UserDetailsService {
         
         @Override
-        public User loadUserByUsername(String username) throws UsernameNotFoundException {
+        public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
             if ("testuser".equals(username)) {
                 return User.withUsername("testuser")
                         .password("password")
@@ -0,0 +1,77 @@
+package com.secureplatform.controller;
+
+import com.secureplatform.cache.UserPrincipalCache;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * A cold login reads the user, roles included, in one statement and inserts its refresh token;
+ * once the principal is cached only the insert is left. The last-login update goes through
+ * the login audit write-behind and is not part of the request. Runs against the seeded H2 database.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        // Keep scheduled Hibernate work out of the measured requests
+        "app.security.lockout.reconcile-interval=3600000",
+        "app.jwt.revocation.sync-interval=3600000",
+        "app.jwt.refresh-token.purge-interval=3600000"
+})
+@AutoConfigureMockMvc
+class LoginStatementCountTest {
+
+    private static final String LOGIN = "{\"usernameOrEmail\":\"user\",\"password\":\"User123!\"}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserPrincipalCache principalCache;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        principalCache.evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void coldLoginIsTwoStatements() throws Exception {
+        login();
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void warmLoginIsOneStatement() throws Exception {
+        login();
+        statistics.clear();
+
+        login();
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    private void login() throws Exception {
+        mockMvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON).content(LOGIN))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accessToken").isNotEmpty());
+    }
+}
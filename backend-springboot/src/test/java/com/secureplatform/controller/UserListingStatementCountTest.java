@@ -0,0 +1,84 @@
+package com.secureplatform.controller;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The admin listings read each user, roles included, in one statement; a paged request past
+ * the first page adds only the count. Runs against the seeded H2 database.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        // Keep scheduled Hibernate work out of the measured requests
+        "app.security.lockout.reconcile-interval=3600000",
+        "app.jwt.revocation.sync-interval=3600000",
+        "app.jwt.refresh-token.purge-interval=3600000"
+})
+@AutoConfigureMockMvc
+@WithMockUser(roles = "ADMIN")
+class UserListingStatementCountTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void firstPageIsOneStatement() throws Exception {
+        mockMvc.perform(get("/api/users").param("page", "0").param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(3)))
+                .andExpect(jsonPath("$.content[0].roles").isNotEmpty());
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void laterPageAddsOnlyTheCount() throws Exception {
+        mockMvc.perform(get("/api/users").param("page", "1").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void activeListingIsOneStatement() throws Exception {
+        mockMvc.perform(get("/api/users/active"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void securityListingIsOneStatement() throws Exception {
+        mockMvc.perform(get("/api/users/security"))
+                .andExpect(status().isOk());
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+}
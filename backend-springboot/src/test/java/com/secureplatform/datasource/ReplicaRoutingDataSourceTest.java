@@ -0,0 +1,152 @@
+package com.secureplatform.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Routes between two in-memory H2 databases, each holding a row naming itself.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private static final String NODE_QUERY = "SELECT name FROM node";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private DataSource primary;
+    private DataSource replica;
+    private ReplicaRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() {
+        primary = node("primary");
+        replica = node("replica");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (routing != null) {
+            routing.close();
+        }
+        new JdbcTemplate(primary).execute("DROP ALL OBJECTS");
+        new JdbcTemplate(replica).execute("DROP ALL OBJECTS");
+    }
+
+    private static DataSource node(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:routing-" + name + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE node (name VARCHAR(20))");
+        jdbcTemplate.update("INSERT INTO node VALUES (?)", name);
+        return dataSource;
+    }
+
+    private static DataSource unreachable() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:routing-missing;IFEXISTS=TRUE");
+        return dataSource;
+    }
+
+    private Router router(List<DataSource> replicas, String lagQuery) {
+        routing = new ReplicaRoutingDataSource(primary, replicas, lagQuery, 1000, meterRegistry);
+        return new Router(routing);
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReplica() {
+        Router router = router(List.of(replica), null);
+
+        assertThat(router.read(true)).isEqualTo("replica");
+    }
+
+    @Test
+    void readWriteTransactionsAndPlainStatementsStayOnThePrimary() {
+        Router router = router(List.of(replica), null);
+
+        assertThat(router.read(false)).isEqualTo("primary");
+        assertThat(router.jdbcTemplate.queryForObject(NODE_QUERY, String.class)).isEqualTo("primary");
+    }
+
+    @Test
+    void unreachableReplicaFallsBackToThePrimary() {
+        Router router = router(List.of(unreachable()), null);
+
+        assertThat(router.read(true)).isEqualTo("primary");
+        assertThat(meterRegistry.get("app.db.route.fallbacks").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("app.db.replica.healthy").gauge().value()).isZero();
+    }
+
+    @Test
+    void laggingReplicaIsSkippedAfterTheCheck() {
+        Router router = router(List.of(replica), "SELECT 5");
+
+        routing.checkReplicas();
+
+        assertThat(router.read(true)).isEqualTo("primary");
+        assertThat(meterRegistry.get("app.db.replica.lag").gauge().value()).isEqualTo(5.0);
+    }
+
+    @Test
+    void replicaServesReadsAgainOnceItCatchesUp() {
+        JdbcTemplate replicaJdbcTemplate = new JdbcTemplate(replica);
+        replicaJdbcTemplate.execute("CREATE TABLE lag (seconds DOUBLE)");
+        replicaJdbcTemplate.update("INSERT INTO lag VALUES (5)");
+        Router router = router(List.of(replica), "SELECT seconds FROM lag");
+        routing.checkReplicas();
+        assertThat(router.read(true)).isEqualTo("primary");
+
+        replicaJdbcTemplate.update("UPDATE lag SET seconds = 0");
+        routing.checkReplicas();
+
+        assertThat(router.read(true)).isEqualTo("replica");
+    }
+
+    @Test
+    void readsSkipAReplicaThatIsDown() {
+        Router router = router(List.of(unreachable(), replica), null);
+
+        for (int i = 0; i < 4; i++) {
+            assertThat(router.read(true)).isEqualTo("replica");
+        }
+        assertThat(meterRegistry.get("app.db.route.fallbacks").counter().count()).isZero();
+    }
+
+    @Test
+    void rejectsConnectionsWithOtherCredentials() {
+        router(List.of(replica), null);
+
+        assertThatThrownBy(() -> routing.getConnection("sa", "other"))
+                .isInstanceOf(SQLFeatureNotSupportedException.class);
+    }
+
+    private static final class Router {
+
+        final JdbcTemplate jdbcTemplate;
+        final TransactionTemplate transactionTemplate;
+
+        Router(ReplicaRoutingDataSource routing) {
+            DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+            this.jdbcTemplate = new JdbcTemplate(dataSource);
+            this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        }
+
+        String read(boolean readOnly) {
+            transactionTemplate.setReadOnly(readOnly);
+            return transactionTemplate.execute(status -> jdbcTemplate.queryForObject(NODE_QUERY, String.class));
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.secureplatform.ratelimit;
+
+import com.secureplatform.ratelimit.RateLimitStore.Limit;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocalRateLimitStoreTest {
+
+    private static final Limit TWO_PER_MINUTE = new Limit(2, Duration.ofMinutes(1));
+    private static final Limit THREE_PER_HOUR = new Limit(3, Duration.ofHours(1));
+
+    private final LocalRateLimitStore store =
+            new LocalRateLimitStore(100, Duration.ofHours(1), new SimpleMeterRegistry());
+
+    @Test
+    void admitsUpToTheLimitThenRejectsWithAWait() {
+        assertThat(store.tryAcquire("client:a", TWO_PER_MINUTE, THREE_PER_HOUR)).isZero();
+        assertThat(store.tryAcquire("client:a", TWO_PER_MINUTE, THREE_PER_HOUR)).isZero();
+
+        assertThat(store.tryAcquire("client:a", TWO_PER_MINUTE, THREE_PER_HOUR)).isPositive();
+        assertThat(store.tryAcquire("client:b", TWO_PER_MINUTE, THREE_PER_HOUR)).isZero();
+    }
+
+    @Test
+    void requestRejectedByTheHourSpendsNoMinuteToken() {
+        Limit onePerHour = new Limit(1, Duration.ofHours(1));
+        assertThat(store.tryAcquire("client:a", TWO_PER_MINUTE, onePerHour)).isZero();
+
+        // Were the minute token kept, the minute limit would reject from the second retry on
+        for (int i = 0; i < 10; i++) {
+            assertThat(store.tryAcquire("client:a", TWO_PER_MINUTE, onePerHour))
+                    .isGreaterThan(Duration.ofMinutes(1).toNanos());
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.secureplatform.ratelimit;
+
+import com.secureplatform.ratelimit.RateLimitStore.Limit;
+import com.secureplatform.support.EmbeddedRedis;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RedisRateLimitStoreTest {
+
+    private static final Limit TWO_PER_MINUTE = new Limit(2, Duration.ofMinutes(1));
+    private static final Limit HUNDRED_PER_HOUR = new Limit(100, Duration.ofHours(1));
+
+    private static EmbeddedRedis redis;
+
+    private RedisRateLimitStore store;
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        redis = EmbeddedRedis.start();
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        redis.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redis.flush();
+        store = new RedisRateLimitStore(redis.template());
+    }
+
+    @Test
+    void admitsUpToTheLimitThenRejectsWithAWait() {
+        assertThat(store.tryAcquire("client:a", TWO_PER_MINUTE, HUNDRED_PER_HOUR)).isZero();
+        assertThat(store.tryAcquire("client:a", TWO_PER_MINUTE, HUNDRED_PER_HOUR)).isZero();
+
+        long waitInNanos = store.tryAcquire("client:a", TWO_PER_MINUTE, HUNDRED_PER_HOUR);
+
+        assertThat(waitInNanos).isPositive().isLessThanOrEqualTo(Duration.ofMinutes(1).toNanos());
+        assertThat(store.tryAcquire("client:b", TWO_PER_MINUTE, HUNDRED_PER_HOUR)).isZero();
+    }
+
+    @Test
+    void rejectedRequestsSpendNoOtherLimit() {
+        for (int i = 0; i < 10; i++) {
+            store.tryAcquire("client:a", TWO_PER_MINUTE, HUNDRED_PER_HOUR);
+        }
+
+        // Only the two admitted requests count against the hour
+        Limit threePerHour = new Limit(3, Duration.ofHours(1));
+        assertThat(store.tryAcquire("client:a", threePerHour)).isZero();
+        assertThat(store.tryAcquire("client:a", threePerHour)).isPositive();
+    }
+
+    @Test
+    void allowsRequestsWhenRedisIsUnavailable() {
+        LettuceConnectionFactory connectionFactory =
+                new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", 1));
+        connectionFactory.afterPropertiesSet();
+        try {
+            RedisRateLimitStore unavailable = new RedisRateLimitStore(new StringRedisTemplate(connectionFactory));
+
+            assertThat(unavailable.tryAcquire("client:a", new Limit(1, Duration.ofMinutes(1)))).isZero();
+        } finally {
+            connectionFactory.destroy();
+        }
+    }
+}
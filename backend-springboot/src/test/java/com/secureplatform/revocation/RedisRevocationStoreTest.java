@@ -0,0 +1,90 @@
+package com.secureplatform.revocation;
+
+import com.secureplatform.revocation.RevocationStore.Revocation;
+import com.secureplatform.support.EmbeddedRedis;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.io.IOException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RedisRevocationStoreTest {
+
+    private static final long HOUR_MS = 3_600_000;
+
+    private static EmbeddedRedis redis;
+
+    private RedisMessageListenerContainer listenerContainer;
+    private RedisRevocationStore store;
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        redis = EmbeddedRedis.start();
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        redis.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redis.flush();
+        listenerContainer = new RedisMessageListenerContainer();
+        listenerContainer.setConnectionFactory(redis.connectionFactory());
+        listenerContainer.afterPropertiesSet();
+        store = new RedisRevocationStore(redis.template(), listenerContainer);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        listenerContainer.destroy();
+    }
+
+    @Test
+    void loadsTokenAndUserRevocations() {
+        long now = System.currentTimeMillis();
+        store.add(Revocation.token("jti-1", now + HOUR_MS));
+        store.add(Revocation.user(7L, now));
+
+        assertThat(store.loadActive(now, HOUR_MS)).containsExactlyInAnyOrder(
+                Revocation.token("jti-1", now + HOUR_MS),
+                Revocation.user(7L, now));
+    }
+
+    @Test
+    void dropsRevocationsThatNoLongerMatter() {
+        long now = System.currentTimeMillis();
+        store.add(Revocation.token("expired", now - 1));
+        store.add(Revocation.token("active", now + HOUR_MS));
+        // Every token issued before this cutoff has expired
+        store.add(Revocation.user(7L, now - HOUR_MS - 1));
+        store.add(Revocation.user(8L, now - 1000));
+
+        assertThat(store.loadActive(now, HOUR_MS)).containsExactlyInAnyOrder(
+                Revocation.token("active", now + HOUR_MS),
+                Revocation.user(8L, now - 1000));
+        assertThat(redis.template().opsForZSet().size("jwt:revoked:tokens")).isEqualTo(1);
+        assertThat(redis.template().opsForZSet().size("jwt:revoked:users")).isEqualTo(1);
+    }
+
+    @Test
+    void notifiesSubscribersOfNewRevocations() throws InterruptedException {
+        BlockingQueue<Revocation> received = new LinkedBlockingQueue<>();
+        store.subscribe(received::add);
+        listenerContainer.start();
+
+        Revocation revocation = Revocation.user(7L, System.currentTimeMillis());
+        store.add(revocation);
+
+        assertThat(received.poll(5, TimeUnit.SECONDS)).isEqualTo(revocation);
+    }
+}
@@ -0,0 +1,77 @@
+package com.secureplatform.security;
+
+import com.secureplatform.service.CustomUserDetailsService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Claims-based principals must be rejected once the user's token version moves on,
+ * even when the token was already verified and cached before the change.
+ */
+@SpringBootTest(properties = "app.jwt.claims-principal.enabled=true")
+@AutoConfigureMockMvc
+class JwtAuthenticationFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private UserTokenVersionRegistry tokenVersionRegistry;
+
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UserPrincipal user;
+
+    @BeforeEach
+    void setUp() {
+        verifiedTokenCache.evictAll();
+        user = (UserPrincipal) userDetailsService.loadUserByUsername("user");
+    }
+
+    @AfterEach
+    void restoreTokenVersion() {
+        jdbcTemplate.update("UPDATE users SET token_version = ? WHERE id = ?", user.getTokenVersion(), user.getId());
+        tokenVersionRegistry.invalidate(user.getId());
+        verifiedTokenCache.evictAll();
+    }
+
+    @Test
+    void cachedTokenIsRejectedAfterVersionBumpOnAnotherNode() throws Exception {
+        String token = tokenProvider.generateToken(user);
+        mockMvc.perform(me(token))
+                .andExpect(status().isOk());
+
+        // Another node bumped the version and this node's registry entry has since expired
+        jdbcTemplate.update("UPDATE users SET token_version = token_version + 1 WHERE id = ?", user.getId());
+        tokenVersionRegistry.invalidate(user.getId());
+
+        mockMvc.perform(me(token))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private MockHttpServletRequestBuilder me(String token) {
+        return get("/api/users/me")
+                .param("userId", user.getId().toString())
+                .header("Authorization", "Bearer " + token);
+    }
+}
@@ -0,0 +1,139 @@
+package com.secureplatform.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Several key rings sharing one H2 database stand in for replicas of the application.
+ */
+class JwtKeyRingTest {
+
+    private static final int REPLICAS = 4;
+
+    private JdbcDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:key-ring;DB_CLOSE_DELAY=-1");
+        new ResourceDatabasePopulator(
+                new ClassPathResource("db/migration/common/V4__jwt_signing_keys.sql"),
+                new ClassPathResource("db/migration/common/V5__jwt_signing_key_lock.sql"))
+                .execute(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    private JwtKeyRing newKeyRing() {
+        JwtKeyRing keyRing = new JwtKeyRing();
+        ReflectionTestUtils.setField(keyRing, "algorithm", "ES256");
+        ReflectionTestUtils.setField(keyRing, "rotationIntervalInMs", 604_800_000L);
+        ReflectionTestUtils.setField(keyRing, "publishAheadInMs", 3_600_000L);
+        ReflectionTestUtils.setField(keyRing, "tokenLifetimeInMs", 86_400_000L);
+        ReflectionTestUtils.setField(keyRing, "jwtSecret", "test-secret");
+        ReflectionTestUtils.setField(keyRing, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(keyRing, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(keyRing, "transactionTemplate",
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)));
+        return keyRing;
+    }
+
+    @Test
+    void replicasStartingTogetherAddOneKey() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(REPLICAS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<JwtKeyRing>> started = new ArrayList<>();
+        try {
+            for (int i = 0; i < REPLICAS; i++) {
+                JwtKeyRing keyRing = newKeyRing();
+                started.add(executor.submit(() -> {
+                    start.await();
+                    keyRing.init();
+                    return keyRing;
+                }));
+            }
+            start.countDown();
+
+            List<String> signingKids = new ArrayList<>();
+            for (Future<JwtKeyRing> keyRing : started) {
+                signingKids.add(keyRing.get().signingKey().kid());
+            }
+
+            assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM jwt_signing_keys", Integer.class))
+                    .isEqualTo(1);
+            assertThat(signingKids).containsOnly(signingKids.get(0));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void dueRotationAddsOneReplacementAcrossReplicas() throws Exception {
+        JwtKeyRing first = newKeyRing();
+        first.init();
+        // Move the key to the end of its interval so every replica finds the rotation due
+        jdbcTemplate.update("UPDATE jwt_signing_keys SET created_at = DATEADD('DAY', -7, created_at), " +
+                "activates_at = DATEADD('DAY', -7, activates_at)");
+
+        List<JwtKeyRing> replicas = new ArrayList<>();
+        for (int i = 0; i < REPLICAS; i++) {
+            replicas.add(newKeyRing());
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(REPLICAS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> refreshed = new ArrayList<>();
+        try {
+            for (JwtKeyRing keyRing : replicas) {
+                refreshed.add(executor.submit(() -> {
+                    start.await();
+                    keyRing.init();
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : refreshed) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM jwt_signing_keys", Integer.class))
+                .isEqualTo(2);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM jwt_signing_keys WHERE expires_at IS NULL", Integer.class))
+                .isEqualTo(1);
+    }
+
+    @Test
+    void startedAtIsTheCreationOfTheOldestKey() throws Exception {
+        long before = System.currentTimeMillis();
+        JwtKeyRing keyRing = newKeyRing();
+        keyRing.init();
+
+        assertThat(keyRing.startedAtMs()).isBetween(before - 1, System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,98 @@
+package com.secureplatform.security;
+
+import com.secureplatform.support.EmbeddedRedis;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RedisLockoutStoreTest {
+
+    private static final Duration WINDOW = Duration.ofMinutes(30);
+    private static final Duration LOCK = Duration.ofMinutes(30);
+
+    private static EmbeddedRedis redis;
+
+    private RedisLockoutStore store;
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        redis = EmbeddedRedis.start();
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        redis.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redis.flush();
+        store = new RedisLockoutStore(redis.template());
+    }
+
+    @Test
+    void locksOnceMaxAttemptsFailuresFallInTheWindow() {
+        LockoutStore.LockoutState first = store.recordFailure(1L, 3, WINDOW, LOCK);
+        store.recordFailure(1L, 3, WINDOW, LOCK);
+        LockoutStore.LockoutState third = store.recordFailure(1L, 3, WINDOW, LOCK);
+
+        assertThat(first.failedAttempts()).isEqualTo(1);
+        assertThat(first.lockedUntil()).isNull();
+        assertThat(first.newlyLocked()).isFalse();
+        assertThat(third.failedAttempts()).isEqualTo(3);
+        assertThat(third.newlyLocked()).isTrue();
+        assertThat(third.lockedUntil()).isAfter(LocalDateTime.now().plus(LOCK).minusMinutes(1));
+        assertThat(store.lockedUntil(1L)).isEqualTo(third.lockedUntil());
+    }
+
+    @Test
+    void reportsNewlyLockedOnlyOnTheLockingFailure() {
+        for (int i = 0; i < 3; i++) {
+            store.recordFailure(1L, 3, WINDOW, LOCK);
+        }
+
+        LockoutStore.LockoutState fourth = store.recordFailure(1L, 3, WINDOW, LOCK);
+
+        assertThat(fourth.newlyLocked()).isFalse();
+        assertThat(fourth.lockedUntil()).isNotNull();
+        // The log keeps only the newest maxAttempts failures
+        assertThat(fourth.failedAttempts()).isEqualTo(3);
+    }
+
+    @Test
+    void clearForgetsFailuresAndLock() {
+        for (int i = 0; i < 3; i++) {
+            store.recordFailure(1L, 3, WINDOW, LOCK);
+        }
+
+        store.clear(1L);
+
+        assertThat(store.lockedUntil(1L)).isNull();
+        assertThat(store.recordFailure(1L, 3, WINDOW, LOCK).failedAttempts()).isEqualTo(1);
+    }
+
+    @Test
+    void drainChangedReturnsEachChangedUserOnce() {
+        for (int i = 0; i < 3; i++) {
+            store.recordFailure(1L, 3, WINDOW, LOCK);
+        }
+        store.recordFailure(2L, 3, WINDOW, LOCK);
+
+        Map<Long, LockoutStore.LockoutState> drained = store.drainChanged(10);
+
+        assertThat(drained).containsOnlyKeys(1L, 2L);
+        assertThat(drained.get(1L).failedAttempts()).isEqualTo(3);
+        assertThat(drained.get(1L).lockedUntil()).isEqualTo(store.lockedUntil(1L));
+        assertThat(drained.get(2L).failedAttempts()).isEqualTo(1);
+        assertThat(drained.get(2L).lockedUntil()).isNull();
+        assertThat(store.drainChanged(10)).isEmpty();
+    }
+}
@@ -0,0 +1,67 @@
+package com.secureplatform.support;
+
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Embedded Redis
+ * A real redis-server process on a free port for the tests of the Redis-backed stores
+ *
+ * Start it in @BeforeAll and close it in @AfterAll; {@link #flush()} between tests keeps
+ * them independent.
+ */
+public final class EmbeddedRedis implements AutoCloseable {
+
+    private final RedisServer server;
+    private final LettuceConnectionFactory connectionFactory;
+    private final StringRedisTemplate template;
+
+    private EmbeddedRedis(int port) throws IOException {
+        this.server = new RedisServer(port);
+        server.start();
+        this.connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", port));
+        connectionFactory.afterPropertiesSet();
+        this.template = new StringRedisTemplate(connectionFactory);
+    }
+
+    /**
+     * Starts a server on a random port, retrying on another one if that port is taken.
+     */
+    public static EmbeddedRedis start() throws IOException {
+        IOException failure = null;
+        for (int attempt = 0; attempt < 5; attempt++) {
+            try {
+                return new EmbeddedRedis(ThreadLocalRandom.current().nextInt(20_000, 30_000));
+            } catch (IOException ex) {
+                failure = ex;
+            }
+        }
+        throw failure;
+    }
+
+    public LettuceConnectionFactory connectionFactory() {
+        return connectionFactory;
+    }
+
+    public StringRedisTemplate template() {
+        return template;
+    }
+
+    public void flush() {
+        template.execute(connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        }, true);
+    }
+
+    @Override
+    public void close() throws IOException {
+        connectionFactory.destroy();
+        server.stop();
+    }
+}